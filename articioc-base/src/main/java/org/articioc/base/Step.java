@@ -1,27 +1,64 @@
 package org.articioc.base;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.Objects;
-import java.util.Optional;
 
+/**
+ * Where a record is in a pipeline. Steps are identified by their name: steps with the same name are
+ * equal. Steps created in code are interned by {@link StepRegistry} and share the same {@link
+ * #id()}, steps read from records with {@link #lookup(String)} are interned only if declared.
+ */
 public class Step {
 
-  public static final Step FINAL = new Step("final", true);
-  public static final Step ENDLESS = new Step("endless", false);
+  public static final Step FINAL = StepRegistry.register(new Step("final", true));
+  public static final Step ENDLESS = StepRegistry.register(new Step("endless", false));
 
   private final String name;
   private final boolean isFinal;
+  private final int id;
   private boolean isReadonly;
 
   public Step(String name) {
     this(name, false);
   }
 
-  @JsonCreator
-  private Step(@JsonProperty("name") String name, @JsonProperty("isFinal") boolean isFinal) {
+  private Step(String name, boolean isFinal) {
+    this(name, isFinal, StepRegistry.idOf(name));
+  }
+
+  private Step(String name, boolean isFinal, int id) {
     this.name = name;
     this.isFinal = isFinal;
+    this.id = id;
+  }
+
+  /** Canonical instance of the step with the given name, see {@link StepRegistry#of(String)}. */
+  public static Step of(String name) {
+    return StepRegistry.of(name);
+  }
+
+  /**
+   * Canonical instance of the step with the given name when there's one, otherwise a step sharing
+   * the id of the name if registered, or not interned. Meant for names read from records, which
+   * must not grow the registry.
+   *
+   * @throws IllegalArgumentException when the name is missing.
+   */
+  public static Step lookup(String name) {
+    if (name == null) throw new IllegalArgumentException("Step name can't be null.");
+
+    var step = StepRegistry.canonical(name);
+
+    return step != null ? step : new Step(name, false, StepRegistry.find(name));
+  }
+
+  /* Deserialized steps are the canonical instances, when declared: whether a step is final is
+   * decided by its name, not by the serialized flag. */
+  @JsonCreator
+  static Step fromJson(
+      @JsonProperty("name") String name, @JsonProperty("isFinal") boolean isFinal) {
+    return lookup(name);
   }
 
   public String getName() {
@@ -33,13 +70,38 @@ public class Step {
     return isFinal;
   }
 
+  /**
+   * @deprecated whether a checkpoint is readonly is kept by each pipeline, see {@code
+   *     StepOptions.CheckpointOptions}. A step flagged here is still considered readonly by every
+   *     pipeline.
+   */
+  @Deprecated
+  @JsonIgnore
   public boolean isReadonly() {
-    return Optional.of(isReadonly).orElse(false);
+    return isReadonly;
   }
 
+  /**
+   * Flags this step, or a copy of it when this is the canonical instance of its name, which is
+   * shared by every pipeline: use the returned step.
+   *
+   * @deprecated see {@link #isReadonly()}.
+   */
+  @Deprecated
   public Step setReadonly(boolean readonly) {
-    isReadonly = readonly;
-    return this;
+    var step = StepRegistry.canonical(name) == this ? new Step(name, isFinal, id) : this;
+
+    step.isReadonly = readonly;
+    return step;
+  }
+
+  /**
+   * Dense id of the name, see {@link StepRegistry#idOf(String)}. {@link
+   * StepRegistry#UNREGISTERED} for a step that isn't interned and whose name wasn't declared since.
+   */
+  @JsonIgnore
+  public int id() {
+    return id != StepRegistry.UNREGISTERED ? id : StepRegistry.find(name);
   }
 
   @Override
@@ -47,12 +109,16 @@ public class Step {
     if (this == o) return true;
     if (!(o instanceof Step step)) return false;
 
-    return Objects.equals(name, step.name);
+    if (id != StepRegistry.UNREGISTERED && step.id != StepRegistry.UNREGISTERED) {
+      return id == step.id;
+    }
+    return name.equals(step.name);
   }
 
+  /* By name, as interned and not interned steps with the same name are equal. */
   @Override
   public int hashCode() {
-    return Objects.hashCode(name);
+    return name.hashCode();
   }
 
   @Override
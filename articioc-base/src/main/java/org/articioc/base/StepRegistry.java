@@ -0,0 +1,71 @@
+package org.articioc.base;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns step names: each name gets a dense {@code int} id, starting from 0, the first time a
+ * {@link Step} with that name is created, and keeps a canonical instance of each step.
+ *
+ * <p>Steps with the same name share the id, so equality and hashing compare ints, and the engine can
+ * index arrays by {@link Step#id()}. Names are never removed: the registry is meant for the finite
+ * set of steps declared by pipelines, not for arbitrary strings. Names read from records go through
+ * {@link Step#lookup(String)}, which doesn't register them.
+ */
+public final class StepRegistry {
+
+  private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, Step> CANONICAL = new ConcurrentHashMap<>();
+
+  /** Id of a step that isn't interned. */
+  public static final int UNREGISTERED = -1;
+
+  private StepRegistry() {}
+
+  /** Id of the name, assigned on the first call. */
+  public static int idOf(String name) {
+    Objects.requireNonNull(name, "Step name can't be null.");
+
+    var id = IDS.get(name);
+    if (id != null) return id;
+
+    synchronized (IDS) {
+      return IDS.computeIfAbsent(name, ignore -> IDS.size());
+    }
+  }
+
+  /** Id of the name if registered, {@link #UNREGISTERED} otherwise. Doesn't register it. */
+  public static int find(String name) {
+    return IDS.getOrDefault(name, UNREGISTERED);
+  }
+
+  /** Number of names registered so far, every id is lower than this. */
+  public static int size() {
+    return IDS.size();
+  }
+
+  /**
+   * Canonical instance for the name: the first step registered with it through {@link
+   * #register(Step)}, otherwise a plain {@link Step} created on the first call.
+   */
+  public static Step of(String name) {
+    var step = CANONICAL.get(name);
+    if (step != null) return step;
+
+    /* Creating the step first initializes Step, registering FINAL and ENDLESS before the lookup. */
+    return register(new Step(name));
+  }
+
+  /** Canonical instance of the name, {@code null} when none was registered. */
+  static Step canonical(String name) {
+    return CANONICAL.get(name);
+  }
+
+  /** Makes the step the canonical instance of its name, unless there's one already. */
+  public static Step register(Step step) {
+    var existing = CANONICAL.putIfAbsent(step.getName(), step);
+
+    return existing == null ? step : existing;
+  }
+}
@@ -0,0 +1,108 @@
+package org.articioc.base.execution;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Defines where the asynchronous work of the engine and of the providers runs.
+ *
+ * <p>Blocking operations (JDBC calls, synchronous HTTP clients, etc.) should run on a context that
+ * tolerates blocking, like {@link #virtualThreads()} or a dedicated pool, so they don't starve
+ * CPU-bound work running on {@link ForkJoinPool#commonPool()}.
+ */
+@FunctionalInterface
+public interface ExecutionContext extends Executor {
+
+  /** Runs the tasks on {@link ForkJoinPool#commonPool()}. */
+  static ExecutionContext commonPool() {
+    return new ExecutorContext(ForkJoinPool.commonPool());
+  }
+
+  /** Runs each task on its own virtual thread. */
+  static ExecutionContext virtualThreads() {
+    return VirtualThreads.EXECUTOR::execute;
+  }
+
+  /**
+   * Runs the tasks on a fixed pool of daemon platform threads, owned by the returned context: close
+   * it once it's no longer used.
+   */
+  static PlatformContext platform(int threads) {
+    return new PlatformContext(threads);
+  }
+
+  /** Runs the tasks on the thread that submits them. */
+  static ExecutionContext inline() {
+    return Inline.INSTANCE;
+  }
+
+  /** Runs the tasks on a custom executor. */
+  static ExecutionContext of(Executor executor) {
+    Objects.requireNonNull(executor);
+
+    if (executor instanceof ExecutionContext context) return context;
+    return new ExecutorContext(executor);
+  }
+
+  /**
+   * How many tasks the context runs at the same time, used to size the work split across it. The
+   * parallelism of the pool when known, the number of processors otherwise.
+   */
+  default int parallelism() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  default <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(supplier, this);
+  }
+
+  default <T> CompletableFuture<T> composeAsync(Supplier<CompletableFuture<T>> supplier) {
+    return CompletableFuture.supplyAsync(supplier, this).thenCompose(f -> f);
+  }
+}
+
+record ExecutorContext(Executor executor) implements ExecutionContext {
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+
+  @Override
+  public int parallelism() {
+    return switch (executor) {
+      case ForkJoinPool pool -> pool.getParallelism();
+      case ThreadPoolExecutor pool -> pool.getMaximumPoolSize();
+      default -> ExecutionContext.super.parallelism();
+    };
+  }
+}
+
+final class Inline implements ExecutionContext {
+  static final Inline INSTANCE = new Inline();
+
+  private Inline() {}
+
+  @Override
+  public void execute(Runnable command) {
+    command.run();
+  }
+
+  @Override
+  public int parallelism() {
+    return 1;
+  }
+}
+
+final class VirtualThreads {
+  static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("articioc-virtual-", 0).factory());
+
+  private VirtualThreads() {}
+}
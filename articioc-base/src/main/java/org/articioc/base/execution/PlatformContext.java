@@ -0,0 +1,48 @@
+package org.articioc.base.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Execution context backed by a fixed pool of daemon platform threads, see {@link
+ * ExecutionContext#platform(int)}.
+ *
+ * <p>The pool is owned by the context: closing it stops accepting tasks and waits for the submitted
+ * ones to complete.
+ */
+public final class PlatformContext implements ExecutionContext, AutoCloseable {
+
+  private final ExecutorService pool;
+  private final int threads;
+
+  PlatformContext(int threads) {
+    if (threads <= 0) throw new IllegalArgumentException("Threads must be greater than 0.");
+
+    this.threads = threads;
+    this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable);
+      thread.setName("articioc-" + thread.threadId());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    pool.execute(command);
+  }
+
+  @Override
+  public int parallelism() {
+    return threads;
+  }
+
+  public boolean isClosed() {
+    return pool.isShutdown();
+  }
+
+  @Override
+  public void close() {
+    pool.close();
+  }
+}
@@ -10,4 +10,15 @@ public interface Provider<T> extends AutoCloseable {
   CompletableFuture<T> write(T leaf);
 
   CompletableFuture<Stream<T>> write(Stream<T> leaves);
+
+  /**
+   * Whether the commit operation of a record depends on the records produced from it, see {@link
+   * org.articioc.base.models.CommitOperationOptions#recordsInOutput()}. {@code false} by default.
+   *
+   * <p>When executed in batch, each record of such providers is committed with the records of its
+   * group's output sharing its {@link org.articioc.base.Leaf#key()}, instead of the whole output.
+   */
+  default boolean commitsOnOwnOutput() {
+    return false;
+  }
 }
@@ -0,0 +1,183 @@
+package org.articioc.base.providers;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.interfaces.Provider;
+
+/**
+ * Decorates a provider merging concurrent writes into larger batches, so that providers with a
+ * bulk write path perform fewer round-trips.
+ *
+ * <p>Records are buffered until either {@code maxBatchSize} records are waiting or {@code
+ * maxLinger} has elapsed since the first of them arrived, then they are handed to the decorated
+ * provider with a single {@link Provider#write(Stream)} call. Each caller's future completes with
+ * its own records, or fails if the whole batch failed. A single write larger than {@code
+ * maxBatchSize} is not split.
+ *
+ * <p>A batch filled by a write is flushed on the thread of that write, one written after {@code
+ * maxLinger} on the execution context of the decorator: {@link ExecutionContext#virtualThreads()}
+ * by default, since the decorated provider may block while writing.
+ *
+ * <p>The decorated provider must return the written records in the same order and number it
+ * received them.
+ */
+public class CoalescingProvider<T> implements Provider<T> {
+
+  private final Provider<T> provider;
+  private final int maxBatchSize;
+  private final long maxLingerNanos;
+  private final ExecutionContext executionContext;
+
+  private java.util.List<Pending<T>> buffer;
+  private int buffered;
+  private long generation;
+
+  public CoalescingProvider(Provider<T> provider, int maxBatchSize, Duration maxLinger) {
+    this(provider, maxBatchSize, maxLinger, ExecutionContext.virtualThreads());
+  }
+
+  public CoalescingProvider(
+      Provider<T> provider,
+      int maxBatchSize,
+      Duration maxLinger,
+      ExecutionContext executionContext) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("Max batch size must be greater than 0.");
+    }
+    if (maxLinger.isNegative()) {
+      throw new IllegalArgumentException("Max linger must not be negative.");
+    }
+
+    this.provider = Objects.requireNonNull(provider);
+    this.maxBatchSize = maxBatchSize;
+    this.maxLingerNanos = maxLinger.toNanos();
+    this.executionContext = Objects.requireNonNull(executionContext);
+    this.buffer = new ArrayList<>();
+  }
+
+  @Override
+  public CompletableFuture<Stream<LeafCarrier<T>>> read() {
+    return provider.read();
+  }
+
+  @Override
+  public boolean commitsOnOwnOutput() {
+    return provider.commitsOnOwnOutput();
+  }
+
+  @Override
+  public CompletableFuture<T> write(T leaf) {
+    return write(Stream.of(leaf)).thenApply(Stream::head);
+  }
+
+  @Override
+  public CompletableFuture<Stream<T>> write(Stream<T> leaves) {
+    var records = leaves.toList();
+    if (records.isEmpty()) return CompletableFuture.completedFuture(Stream.empty());
+
+    var pending = new Pending<T>(records, new CompletableFuture<>());
+    java.util.List<Pending<T>> full = null;
+    long lingerOf = -1;
+
+    synchronized (this) {
+      buffer.add(pending);
+      buffered += records.size();
+
+      if (buffered >= maxBatchSize) {
+        full = drain();
+      } else if (buffer.size() == 1) {
+        lingerOf = generation;
+      }
+    }
+
+    if (full != null) {
+      flush(full);
+    } else if (lingerOf >= 0) {
+      var batch = lingerOf;
+      CompletableFuture.delayedExecutor(maxLingerNanos, TimeUnit.NANOSECONDS, executionContext)
+          .execute(() -> flushIfStillLingering(batch));
+    }
+
+    return pending.result();
+  }
+
+  /** Writes the records that are still buffered, then closes the decorated provider. */
+  @Override
+  public void close() throws Exception {
+    java.util.List<Pending<T>> remaining;
+    synchronized (this) {
+      remaining = drain();
+    }
+
+    if (!remaining.isEmpty()) {
+      flush(remaining).handle((ignore, ex) -> null).join();
+    }
+
+    provider.close();
+  }
+
+  private void flushIfStillLingering(long batch) {
+    java.util.List<Pending<T>> lingering;
+    synchronized (this) {
+      if (batch != generation || buffer.isEmpty()) return;
+      lingering = drain();
+    }
+
+    flush(lingering);
+  }
+
+  /* Must be called holding the lock. */
+  private java.util.List<Pending<T>> drain() {
+    var drained = buffer;
+
+    buffer = new ArrayList<>();
+    buffered = 0;
+    generation++;
+
+    return drained;
+  }
+
+  private CompletableFuture<Stream<T>> flush(java.util.List<Pending<T>> batch) {
+    var records = List.ofAll(batch).flatMap(Pending::records);
+
+    CompletableFuture<Stream<T>> written;
+    try {
+      written = Objects.requireNonNull(
+          provider.write(records.toStream()), "Provider returned no future.");
+    } catch (Exception ex) {
+      written = CompletableFuture.failedFuture(ex);
+    }
+
+    return written.whenComplete((output, ex) -> {
+      var result = output == null ? null : output.toList();
+
+      if (ex == null && result == null) {
+        ex = new IllegalStateException("Provider returned no records.");
+      } else if (ex == null && result.size() != records.size()) {
+        ex = new IllegalStateException("Provider returned %d records while %d were written."
+            .formatted(result.size(), records.size()));
+      }
+
+      var remaining = result;
+      for (var pending : batch) {
+        if (ex != null) {
+          pending.result().completeExceptionally(ex);
+          continue;
+        }
+
+        var size = pending.records().size();
+        pending.result().complete(remaining.take(size).toStream());
+        remaining = remaining.drop(size);
+      }
+    });
+  }
+
+  private record Pending<T>(List<T> records, CompletableFuture<Stream<T>> result) {}
+}
@@ -0,0 +1,158 @@
+package org.articioc.base.utils;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous tasks that are running at the same time.
+ *
+ * <p>Tasks submitted while all the slots are taken are queued, in submission order, and started as
+ * soon as a running task completes. No thread is ever blocked while waiting for a slot.
+ *
+ * <p>The limiter keeps track of how long tasks waited in the queue before being started, see {@link
+ * #stats()}.
+ */
+public class AsyncLimiter {
+
+  private final int maxInFlight;
+  private final Queue<Pending<?>> queue;
+  private final AtomicInteger draining;
+
+  private int inFlight;
+
+  private final LongAdder started;
+  private final LongAdder waited;
+  private final LongAdder waitedNanos;
+  private final AtomicLong maxWaitNanos;
+
+  public AsyncLimiter(int maxInFlight) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("Max in-flight must be greater than 0.");
+    }
+
+    this.maxInFlight = maxInFlight;
+    this.queue = new ArrayDeque<>();
+    this.draining = new AtomicInteger();
+
+    this.started = new LongAdder();
+    this.waited = new LongAdder();
+    this.waitedNanos = new LongAdder();
+    this.maxWaitNanos = new AtomicLong();
+  }
+
+  /**
+   * Runs the task as soon as a slot is available. The slot is released when the future returned by
+   * the task completes, normally or exceptionally.
+   */
+  public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+    Pending<T> pending;
+
+    synchronized (this) {
+      var hasToWait = inFlight >= maxInFlight || !queue.isEmpty();
+      pending = new Pending<>(task, System.nanoTime(), hasToWait, new CompletableFuture<>());
+      queue.add(pending);
+    }
+
+    drain();
+
+    return pending.result;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public Stats stats() {
+    synchronized (this) {
+      return new Stats(
+          started.sum(),
+          waited.sum(),
+          waitedNanos.sum(),
+          maxWaitNanos.get(),
+          inFlight,
+          queue.size());
+    }
+  }
+
+  private void release() {
+    synchronized (this) {
+      inFlight--;
+    }
+
+    drain();
+  }
+
+  private synchronized Pending<?> pollIfSlotIsAvailable() {
+    if (inFlight >= maxInFlight || queue.isEmpty()) return null;
+
+    inFlight++;
+    return queue.poll();
+  }
+
+  /* Tasks that complete synchronously release their slot while the queue is still being drained,
+   * so draining is done by a single thread at a time, in a loop, keeping the stack flat. */
+  private void drain() {
+    if (draining.getAndIncrement() != 0) return;
+
+    do {
+      Pending<?> next;
+      while ((next = pollIfSlotIsAvailable()) != null) {
+        start(next);
+      }
+    } while (draining.decrementAndGet() != 0);
+  }
+
+  private <T> void start(Pending<T> pending) {
+    var waitedFor = System.nanoTime() - pending.enqueuedAt;
+
+    started.increment();
+    if (pending.hasToWait) {
+      waited.increment();
+      waitedNanos.add(waitedFor);
+      maxWaitNanos.accumulateAndGet(waitedFor, Math::max);
+    }
+
+    CompletableFuture<T> execution;
+    try {
+      execution = pending.task.get();
+    } catch (Throwable ex) {
+      execution = CompletableFuture.failedFuture(ex);
+    }
+
+    execution.whenComplete((value, ex) -> {
+      release();
+
+      if (ex != null) pending.result.completeExceptionally(ex);
+      else pending.result.complete(value);
+    });
+  }
+
+  private record Pending<T>(
+      Supplier<CompletableFuture<T>> task,
+      long enqueuedAt,
+      boolean hasToWait,
+      CompletableFuture<T> result) {}
+
+  /**
+   * Snapshot of the limiter's counters.
+   *
+   * @param started tasks started since the limiter was created.
+   * @param waited tasks that found every slot taken when they were submitted.
+   * @param waitedNanos total time spent by tasks waiting for a slot.
+   * @param maxWaitNanos longest time a single task waited for a slot.
+   * @param inFlight tasks currently running.
+   * @param queued tasks currently waiting for a slot.
+   */
+  public record Stats(
+      long started, long waited, long waitedNanos, long maxWaitNanos, int inFlight, int queued) {
+
+    public double averageWaitNanos() {
+      return started == 0 ? 0 : (double) waitedNanos / started;
+    }
+  }
+}
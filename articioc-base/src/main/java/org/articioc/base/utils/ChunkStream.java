@@ -1,26 +1,166 @@
 package org.articioc.base.utils;
 
-import java.util.Iterator;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Splits a stream in chunks, cut by number of elements, by estimated size in bytes and by how long
+ * the first element of a chunk has been waiting.
+ *
+ * <p>Chunks are built lazily by a {@link Spliterator} wrapping the one of the input: a parallel
+ * input is split as the input itself splits, and chunks never span two splits. {@code null}
+ * elements are kept.
+ */
 public class ChunkStream {
+
   public static <T> Stream<Stream<T>> chunkBy(Stream<T> inputStream, int chunkSize) {
-    if (chunkSize <= 0) {
-      throw new IllegalArgumentException("Chunk size must be greater than 0.");
-    }
+    return chunked(inputStream, chunkSize).map(List::stream);
+  }
+
+  public static <T> Stream<List<T>> chunked(Stream<T> inputStream, int maxCount) {
+    return chunked(inputStream, Limits.count(maxCount));
+  }
 
-    Iterator<T> iterator = inputStream.iterator();
+  public static <T> Stream<List<T>> chunked(Stream<T> inputStream, Limits<? super T> limits) {
+    Objects.requireNonNull(limits);
 
-    return Stream.generate(() -> {
-          List<T> chunk = Stream.generate(() -> iterator.hasNext() ? iterator.next() : null)
-              .limit(chunkSize)
-              .filter(Objects::nonNull)
-              .toList();
-          return chunk.isEmpty() ? null : chunk.stream();
-        })
-        .takeWhile(Objects::nonNull)
+    return StreamSupport.stream(
+            new ChunkSpliterator<T>(inputStream.spliterator(), limits), inputStream.isParallel())
         .onClose(inputStream::close);
   }
+
+  /**
+   * @param maxCount elements in a chunk.
+   * @param maxBytes estimated size of a chunk, by {@code sizeOf}. An element larger than this is
+   *     emitted in a chunk of its own.
+   * @param sizeOf estimated size in bytes of an element, {@code null} when chunks aren't cut by
+   *     size.
+   * @param maxLinger how long a chunk is kept open after its first element. It's checked as
+   *     elements arrive: a chunk is emitted with the first element received after the deadline, or
+   *     when the input ends. {@code null} when chunks aren't cut by time.
+   */
+  public record Limits<T>(
+      int maxCount, long maxBytes, ToLongFunction<? super T> sizeOf, Duration maxLinger) {
+
+    public Limits {
+      if (maxCount <= 0) {
+        throw new IllegalArgumentException("Chunk size must be greater than 0.");
+      }
+      if (sizeOf != null && maxBytes <= 0) {
+        throw new IllegalArgumentException("Max bytes must be greater than 0.");
+      }
+      if (maxLinger != null && (maxLinger.isNegative() || maxLinger.isZero())) {
+        throw new IllegalArgumentException("Max linger must be positive.");
+      }
+    }
+
+    public static <T> Limits<T> count(int maxCount) {
+      return new Limits<>(maxCount, 0, null, null);
+    }
+
+    public <U extends T> Limits<U> bytes(long maxBytes, ToLongFunction<? super U> sizeOf) {
+      return new Limits<>(maxCount, maxBytes, Objects.requireNonNull(sizeOf), maxLinger);
+    }
+
+    public Limits<T> linger(Duration maxLinger) {
+      return new Limits<>(maxCount, maxBytes, sizeOf, Objects.requireNonNull(maxLinger));
+    }
+  }
+
+  private static final class ChunkSpliterator<T> implements Spliterator<List<T>> {
+
+    private final Spliterator<T> source;
+    private final Limits<? super T> limits;
+    private final long lingerNanos;
+
+    /* An element that didn't fit the previous chunk by size, it opens the next one. */
+    private T carried;
+    private boolean hasCarried;
+
+    /* Reused by the source's callback, to avoid allocating a consumer per element. */
+    private T received;
+
+    ChunkSpliterator(Spliterator<T> source, Limits<? super T> limits) {
+      this.source = source;
+      this.limits = limits;
+      this.lingerNanos = limits.maxLinger() == null ? 0 : limits.maxLinger().toNanos();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+      var chunk = new ArrayList<T>(Math.min(limits.maxCount(), 1024));
+      var sizeOf = limits.sizeOf();
+      long bytes = 0;
+      long openedAt = 0;
+
+      while (chunk.size() < limits.maxCount()) {
+        T element;
+        if (hasCarried) {
+          element = carried;
+          carried = null;
+          hasCarried = false;
+        } else if (source.tryAdvance(this::receive)) {
+          element = received;
+          received = null;
+        } else {
+          break;
+        }
+
+        if (sizeOf != null) {
+          var size = sizeOf.applyAsLong(element);
+          if (!chunk.isEmpty() && bytes + size > limits.maxBytes()) {
+            carried = element;
+            hasCarried = true;
+            break;
+          }
+          bytes += size;
+        }
+
+        chunk.add(element);
+
+        if (lingerNanos > 0) {
+          if (chunk.size() == 1) openedAt = System.nanoTime();
+          else if (System.nanoTime() - openedAt >= lingerNanos) break;
+        }
+        if (sizeOf != null && bytes >= limits.maxBytes()) break;
+      }
+
+      if (chunk.isEmpty()) return false;
+
+      action.accept(chunk);
+      return true;
+    }
+
+    private void receive(T element) {
+      received = element;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+      if (hasCarried) return null;
+
+      var prefix = source.trySplit();
+      return prefix == null ? null : new ChunkSpliterator<>(prefix, limits);
+    }
+
+    @Override
+    public long estimateSize() {
+      var elements = source.estimateSize();
+      if (elements == Long.MAX_VALUE) return Long.MAX_VALUE;
+
+      return (elements + (hasCarried ? 1 : 0) + limits.maxCount() - 1) / limits.maxCount();
+    }
+
+    @Override
+    public int characteristics() {
+      return (source.characteristics() & ORDERED) | NONNULL;
+    }
+  }
 }
@@ -1,26 +1,196 @@
 package org.articioc.base.utils;
 
 import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
+/**
+ * Combinators over many futures.
+ *
+ * <p>Results are collected eagerly: each one is stored in an array as its future completes, and the
+ * returned {@link Stream} is backed by that array, so reading it never waits. Completion is tracked
+ * with a counter rather than with {@link CompletableFuture#allOf}, which builds a tree of
+ * intermediate futures.
+ */
 public class Futures {
+
   public static <E> CompletableFuture<Stream<E>> whenAll(
       Stream<CompletableFuture<Stream<E>>> input) {
-    var futures = input.toJavaArray(CompletableFuture[]::new);
-
-    return CompletableFuture.allOf(futures).thenApply(v -> Stream.of(futures)
-        .map(f -> (CompletableFuture<Stream<E>>) f)
-        .flatMap(CompletableFuture::join));
+    return collect(input).thenApply(results -> results.flatMap(Function.identity()));
   }
 
   public static <E> CompletableFuture<Stream<E>> whenAllAsStream(
       Stream<CompletableFuture<E>> input) {
-    var futures = input.toJavaArray(CompletableFuture[]::new);
+    return collect(input);
+  }
+
+  /**
+   * Waits for every future and returns their results in order. When some fail, the result fails
+   * with the first failure observed, once every future completed.
+   */
+  public static <E> CompletableFuture<Stream<E>> collect(
+      Iterable<? extends CompletableFuture<? extends E>> futures) {
+    return new Collector<E>(toList(futures), false).start();
+  }
+
+  /**
+   * Returns the results of the futures in order, or fails as soon as one of them fails. The futures
+   * still running are then cancelled.
+   */
+  public static <E> CompletableFuture<Stream<E>> collectFailFast(
+      Iterable<? extends CompletableFuture<? extends E>> futures) {
+    return new Collector<E>(toList(futures), true).start();
+  }
+
+  /**
+   * Applies {@code task} to each item, with at most {@code maxParallelism} tasks running at once,
+   * and returns the results in the order of the items. On the first failure no other task is
+   * started and the running ones are cancelled.
+   *
+   * <p>Tasks completing synchronously are handled in a loop, so the stack doesn't grow with the
+   * number of items.
+   */
+  public static <T, E> CompletableFuture<Stream<E>> traverse(
+      Iterable<? extends T> items,
+      int maxParallelism,
+      Function<? super T, ? extends CompletableFuture<? extends E>> task) {
+    if (maxParallelism <= 0) {
+      throw new IllegalArgumentException("Max parallelism must be greater than 0.");
+    }
+
+    return new Traversal<T, E>(toList(items), task).start(maxParallelism);
+  }
+
+  private static <T> List<T> toList(Iterable<? extends T> items) {
+    var list = new ArrayList<T>();
+    items.forEach(list::add);
+
+    return list;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> Stream<E> backedBy(Object[] results) {
+    return Stream.ofAll(Arrays.asList((E[]) results));
+  }
+
+  private static final class Collector<E> {
+    private final List<? extends CompletableFuture<? extends E>> futures;
+    private final boolean failFast;
+    private final Object[] results;
+    private final AtomicInteger remaining;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final CompletableFuture<Stream<E>> result = new CompletableFuture<>();
+
+    Collector(List<? extends CompletableFuture<? extends E>> futures, boolean failFast) {
+      this.futures = futures;
+      this.failFast = failFast;
+      this.results = new Object[futures.size()];
+      this.remaining = new AtomicInteger(futures.size());
+    }
+
+    CompletableFuture<Stream<E>> start() {
+      if (futures.isEmpty()) return CompletableFuture.completedFuture(Stream.empty());
+
+      for (int i = 0; i < futures.size(); i++) {
+        var index = i;
+        futures.get(i).whenComplete((value, ex) -> completed(index, value, ex));
+      }
+
+      return result;
+    }
+
+    private void completed(int index, E value, Throwable ex) {
+      if (ex != null && failure.compareAndSet(null, ex) && failFast) {
+        result.completeExceptionally(ex);
+        futures.forEach(future -> future.cancel(false));
+      }
+      if (ex == null) results[index] = value;
+
+      if (remaining.decrementAndGet() > 0) return;
+
+      if (failure.get() != null) result.completeExceptionally(failure.get());
+      else result.complete(backedBy(results));
+    }
+  }
+
+  private static final class Traversal<T, E> {
+    private final List<T> items;
+    private final Function<? super T, ? extends CompletableFuture<? extends E>> task;
+    private final Object[] results;
+    private final AtomicReferenceArray<CompletableFuture<?>> started;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<Stream<E>> result = new CompletableFuture<>();
+
+    Traversal(
+        List<T> items, Function<? super T, ? extends CompletableFuture<? extends E>> task) {
+      this.items = items;
+      this.task = task;
+      this.results = new Object[items.size()];
+      this.started = new AtomicReferenceArray<>(items.size());
+      this.remaining = new AtomicInteger(items.size());
+    }
+
+    CompletableFuture<Stream<E>> start(int maxParallelism) {
+      if (items.isEmpty()) return CompletableFuture.completedFuture(Stream.empty());
+
+      for (int i = 0; i < Math.min(maxParallelism, items.size()); i++) {
+        run();
+      }
+
+      return result;
+    }
+
+    /* Starts the next task, and the following ones while they complete synchronously. */
+    private void run() {
+      int index;
+      while (!result.isDone() && (index = next.getAndIncrement()) < items.size()) {
+        CompletableFuture<? extends E> execution;
+        try {
+          execution = task.apply(items.get(index));
+        } catch (Throwable ex) {
+          execution = CompletableFuture.failedFuture(ex);
+        }
+        started.set(index, execution);
+
+        /* The failure may have been handled before the task was recorded. */
+        if (result.isCompletedExceptionally()) {
+          execution.cancel(false);
+          return;
+        }
+
+        var current = index;
+        if (!execution.isDone()) {
+          execution.whenComplete((value, ex) -> {
+            completed(current, value, ex);
+            run();
+          });
+          return;
+        }
+
+        execution.whenComplete((value, ex) -> completed(current, value, ex));
+      }
+    }
+
+    private void completed(int index, E value, Throwable ex) {
+      if (ex != null) {
+        if (result.completeExceptionally(ex)) {
+          for (int i = 0; i < started.length(); i++) {
+            var execution = started.get(i);
+            if (execution != null) execution.cancel(false);
+          }
+        }
+        return;
+      }
 
-    return CompletableFuture.allOf(futures)
-        .thenApply(v ->
-            Stream.of(futures)
-                .map(f -> (CompletableFuture<E>) f)
-                .map(CompletableFuture::join));
+      results[index] = value;
+      if (remaining.decrementAndGet() == 0) result.complete(backedBy(results));
+    }
   }
 }
@@ -0,0 +1,51 @@
+package org.articioc.base.utils;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous tasks on a fixed number of serial lanes, chosen by the hash of a key.
+ *
+ * <p>Tasks submitted with the same key always land on the same lane and run one at a time, in
+ * submission order: each one starts when the previous completes, normally or exceptionally. Tasks
+ * on different lanes don't wait for each other. Each lane is an {@link AsyncLimiter} with a single
+ * slot, so no thread is blocked while waiting and the stack stays flat.
+ */
+public class KeyedLanes {
+
+  private final AsyncLimiter[] lanes;
+
+  public KeyedLanes(int lanes) {
+    if (lanes <= 0) {
+      throw new IllegalArgumentException("Lanes must be greater than 0.");
+    }
+
+    this.lanes = new AsyncLimiter[lanes];
+    for (int i = 0; i < lanes; i++) {
+      this.lanes[i] = new AsyncLimiter(1);
+    }
+  }
+
+  public <T> CompletableFuture<T> submit(Object key, Supplier<CompletableFuture<T>> task) {
+    return lanes[laneOf(key)].submit(task);
+  }
+
+  public int laneOf(Object key) {
+    return Math.floorMod(Objects.hashCode(key), lanes.length);
+  }
+
+  public int size() {
+    return lanes.length;
+  }
+
+  /** Tasks waiting on each lane, by lane index. */
+  public int[] queued() {
+    var queued = new int[lanes.length];
+    for (int i = 0; i < lanes.length; i++) {
+      queued[i] = lanes[i].stats().queued();
+    }
+
+    return queued;
+  }
+}
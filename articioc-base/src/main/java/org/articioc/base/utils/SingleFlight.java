@@ -0,0 +1,70 @@
+package org.articioc.base.utils;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one: while a call is running, calls with its
+ * key share its future instead of starting their own.
+ *
+ * <p>Nothing is kept once the call completes, the next call with the key starts a new one. Calls
+ * that share a future share its failure as well.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder started = new LongAdder();
+  private final LongAdder collapsed = new LongAdder();
+
+  /** Starts the call, unless one with the same key is running. */
+  public Flight<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+    Objects.requireNonNull(key);
+
+    var result = new CompletableFuture<V>();
+    var running = inFlight.putIfAbsent(key, result);
+    if (running != null) {
+      collapsed.increment();
+      return new Flight<>(running, false);
+    }
+
+    started.increment();
+
+    CompletableFuture<V> execution;
+    try {
+      execution = call.get();
+    } catch (Throwable ex) {
+      execution = CompletableFuture.failedFuture(ex);
+    }
+
+    execution.whenComplete((value, ex) -> {
+      inFlight.remove(key, result);
+
+      if (ex != null) result.completeExceptionally(ex);
+      else result.complete(value);
+    });
+
+    return new Flight<>(result, true);
+  }
+
+  public Stats stats() {
+    return new Stats(started.sum(), collapsed.sum(), inFlight.size());
+  }
+
+  /**
+   * @param leader whether this call started the execution, rather than sharing a running one.
+   */
+  public record Flight<V>(CompletableFuture<V> result, boolean leader) {}
+
+  /**
+   * Snapshot of the counters.
+   *
+   * @param started calls that started an execution.
+   * @param collapsed calls that shared the execution of a running one.
+   * @param inFlight executions currently running.
+   */
+  public record Stats(long started, long collapsed, int inFlight) {}
+}
@@ -0,0 +1,138 @@
+package org.articioc.base.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the results of a step, evicting the least recently used entry once full.
+ *
+ * <p>Entries may expire a fixed time after being written, expired entries are removed when read.
+ * Reads and writes take a lock held only for the map operation, the counters behind {@link
+ * #stats()} are updated outside of it.
+ */
+public class StepCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LongSupplier ticker;
+  private final Map<K, Entry<V>> entries;
+
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private final LongAdder expirations;
+
+  /**
+   * @param ttl how long an entry is kept after being written, {@code null} to keep it until it's
+   *     evicted.
+   */
+  public StepCache(int maxSize, Duration ttl) {
+    this(maxSize, ttl, System::nanoTime);
+  }
+
+  StepCache(int maxSize, Duration ttl, LongSupplier ticker) {
+    if (maxSize <= 0) throw new IllegalArgumentException("Max size must be greater than 0.");
+    if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+      throw new IllegalArgumentException("TTL must be greater than 0.");
+    }
+
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+    this.ticker = ticker;
+
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+    this.expirations = new LongAdder();
+
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        if (size() <= StepCache.this.maxSize) return false;
+
+        evictions.increment();
+        return true;
+      }
+    };
+  }
+
+  /** The value of the key, unless missing or expired. */
+  public Optional<V> get(K key) {
+    Objects.requireNonNull(key);
+    var now = ticker.getAsLong();
+
+    Entry<V> entry;
+    var expired = false;
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry != null && now - entry.writtenAt >= ttlNanos) {
+        entries.remove(key);
+        entry = null;
+        expired = true;
+      }
+    }
+
+    if (expired) expirations.increment();
+    if (entry == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+
+    hits.increment();
+    return Optional.of(entry.value);
+  }
+
+  public void put(K key, V value) {
+    Objects.requireNonNull(key);
+    var entry = new Entry<>(Objects.requireNonNull(value), ticker.getAsLong());
+
+    synchronized (this) {
+      entries.put(key, entry);
+    }
+  }
+
+  public synchronized void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public Stats stats() {
+    int size;
+    synchronized (this) {
+      size = entries.size();
+    }
+
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+  }
+
+  private record Entry<V>(V value, long writtenAt) {}
+
+  /**
+   * Snapshot of the cache's counters.
+   *
+   * @param hits reads that found a live entry.
+   * @param misses reads that found no entry, or an expired one.
+   * @param evictions entries removed to keep the cache within its max size.
+   * @param expirations entries removed because they were read after their TTL.
+   * @param size entries currently in the cache, expired ones included until read.
+   */
+  public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+    public double hitRate() {
+      var reads = hits + misses;
+      return reads == 0 ? 0 : (double) hits / reads;
+    }
+  }
+}
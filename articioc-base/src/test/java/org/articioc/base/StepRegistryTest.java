@@ -0,0 +1,103 @@
+package org.articioc.base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import org.articioc.base.providers.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StepRegistryTest {
+
+  @Test
+  void stepsWithTheSameNameShareTheId() {
+    var step = new Step("registry-test");
+
+    Assertions.assertEquals(step.id(), new Step("registry-test").id());
+    Assertions.assertEquals(step.id(), StepRegistry.idOf("registry-test"));
+    Assertions.assertEquals(step, new TestStep("registry-test"));
+    Assertions.assertEquals(step.hashCode(), new TestStep("registry-test").hashCode());
+    Assertions.assertNotEquals(step, new Step("registry-test-other"));
+    Assertions.assertTrue(step.id() < StepRegistry.size());
+  }
+
+  @Test
+  void idsAreDense() {
+    var first = StepRegistry.idOf("registry-dense-first");
+    var second = StepRegistry.idOf("registry-dense-second");
+
+    Assertions.assertEquals(first + 1, second);
+  }
+
+  @Test
+  void ofReturnsTheCanonicalInstance() {
+    Assertions.assertSame(Step.FINAL, Step.of("final"));
+    Assertions.assertSame(Step.of("registry-canonical"), Step.of("registry-canonical"));
+
+    var registered = StepRegistry.register(new TestStep("registry-registered"));
+    Assertions.assertSame(registered, Step.of("registry-registered"));
+  }
+
+  @Test
+  void deserializedStepsAreCanonical() throws Exception {
+    var json = new ObjectMapper();
+
+    Assertions.assertSame(
+        Step.FINAL, json.readValue(json.writeValueAsString(Step.FINAL), Step.class));
+    Assertions.assertSame(
+        Step.of("registry-json"),
+        json.readValue("{\"name\":\"registry-json\",\"isFinal\":false}", Step.class));
+  }
+
+  @Test
+  void lookedUpStepsAreNotInterned() throws Exception {
+    Assertions.assertTrue(Step.FINAL.isFinal());
+    var size = StepRegistry.size();
+
+    var looked = Step.lookup("registry-lookup");
+    var deserialized = new ObjectMapper()
+        .readValue("{\"name\":\"registry-lookup\",\"isFinal\":false}", Step.class);
+
+    Assertions.assertEquals(size, StepRegistry.size());
+    Assertions.assertEquals(StepRegistry.UNREGISTERED, looked.id());
+    Assertions.assertEquals(looked, deserialized);
+
+    /* Once declared, the name gets an id that earlier looked up steps share. */
+    var declared = new Step("registry-lookup");
+    Assertions.assertEquals(declared, looked);
+    Assertions.assertEquals(declared.hashCode(), looked.hashCode());
+    Assertions.assertEquals(declared.id(), looked.id());
+    Assertions.assertEquals(declared.id(), Step.lookup("registry-lookup").id());
+  }
+
+  @Test
+  void missingNamesAreRefused() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Step.lookup(null));
+
+    var thrown = Assertions.assertThrows(
+        ValueInstantiationException.class,
+        () -> new ObjectMapper().readValue("{\"isFinal\":false}", Step.class));
+    Assertions.assertInstanceOf(IllegalArgumentException.class, thrown.getCause());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void readonlyAccessorsAreKept() {
+    var step = new Step("registry-readonly");
+
+    Assertions.assertFalse(step.isReadonly());
+    Assertions.assertTrue(step.setReadonly(true).isReadonly());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void canonicalStepsAreNotFlaggedReadonly() {
+    var canonical = Step.of("registry-readonly-canonical");
+    var flagged = canonical.setReadonly(true);
+
+    Assertions.assertNotSame(canonical, flagged);
+    Assertions.assertTrue(flagged.isReadonly());
+    Assertions.assertEquals(canonical, flagged);
+    Assertions.assertFalse(canonical.isReadonly());
+    Assertions.assertFalse(Step.of("registry-readonly-canonical").isReadonly());
+  }
+}
@@ -0,0 +1,47 @@
+package org.articioc.base.execution;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PlatformContextTest {
+
+  @Test
+  void closingTheContextWaitsForTheTasksAndShutsThePoolDown() {
+    PlatformContext context;
+    String thread;
+
+    try (var platform = ExecutionContext.platform(2)) {
+      context = platform;
+      thread = platform.supplyAsync(() -> Thread.currentThread().getName()).join();
+    }
+
+    Assertions.assertTrue(thread.startsWith("articioc-"));
+    Assertions.assertTrue(context.isClosed());
+    Assertions.assertThrows(RejectedExecutionException.class, () -> context.execute(() -> {}));
+  }
+
+  @Test
+  void parallelismIsTheOneOfTheUnderlyingPool() {
+    try (var platform = ExecutionContext.platform(3)) {
+      Assertions.assertEquals(3, platform.parallelism());
+    }
+
+    var pool = new ForkJoinPool(5);
+    try {
+      Assertions.assertEquals(5, ExecutionContext.of(pool).parallelism());
+    } finally {
+      pool.shutdown();
+    }
+
+    Assertions.assertEquals(
+        ForkJoinPool.getCommonPoolParallelism(), ExecutionContext.commonPool().parallelism());
+    Assertions.assertEquals(1, ExecutionContext.inline().parallelism());
+  }
+
+  @Test
+  void threadsMustBeGreaterThanZero() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ExecutionContext.platform(0));
+  }
+}
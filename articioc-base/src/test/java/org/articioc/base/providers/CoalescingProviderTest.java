@@ -0,0 +1,145 @@
+package org.articioc.base.providers;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.interfaces.Provider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CoalescingProviderTest {
+
+  /** Records the size of each bulk write. */
+  static class BulkProvider implements Provider<TestLeaf> {
+    private final List<Integer> writes = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+    private final boolean failing;
+
+    BulkProvider(boolean failing) {
+      this.failing = failing;
+    }
+
+    @Override
+    public CompletableFuture<Stream<LeafCarrier<TestLeaf>>> read() {
+      return CompletableFuture.completedFuture(Stream.empty());
+    }
+
+    @Override
+    public CompletableFuture<TestLeaf> write(TestLeaf leaf) {
+      return write(Stream.of(leaf)).thenApply(Stream::head);
+    }
+
+    @Override
+    public CompletableFuture<Stream<TestLeaf>> write(Stream<TestLeaf> leaves) {
+      writes.add(leaves.size());
+      threads.add(Thread.currentThread().getName());
+
+      if (failing) return CompletableFuture.failedFuture(new RuntimeException("Bulk write failed"));
+      return CompletableFuture.completedFuture(leaves);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  void writesAreMergedUpToMaxBatchSizeAndEachCallerGetsItsRecords() {
+    var bulk = new BulkProvider(false);
+    var provider = new CoalescingProvider<>(bulk, 4, Duration.ofSeconds(10));
+
+    var a = new TestLeaf(TestStep._0);
+    var b = new TestLeaf(TestStep._1);
+    var c = new TestLeaf(TestStep._2);
+
+    var first = provider.write(a);
+    var second = provider.write(Stream.of(b, c));
+
+    Assertions.assertFalse(first.isDone());
+    Assertions.assertTrue(bulk.writes.isEmpty());
+
+    var third = provider.write(a);
+
+    Assertions.assertEquals(List.of(4), bulk.writes);
+    Assertions.assertSame(a, first.join());
+    Assertions.assertEquals(List.of(b, c), second.join().toJavaList());
+    Assertions.assertSame(a, third.join());
+  }
+
+  @Test
+  void partialBatchIsWrittenAfterLinger() {
+    var bulk = new BulkProvider(false);
+    var provider = new CoalescingProvider<>(bulk, 100, Duration.ofMillis(20));
+
+    var first = provider.write(new TestLeaf(TestStep._0));
+    var second = provider.write(new TestLeaf(TestStep._1));
+
+    CompletableFuture.allOf(first, second).join();
+
+    Assertions.assertEquals(List.of(2), bulk.writes);
+  }
+
+  @Test
+  void lingeringBatchIsWrittenOnTheExecutionContext() {
+    var bulk = new BulkProvider(false);
+    var pool = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "coalescing"));
+    var provider = new CoalescingProvider<>(
+        bulk, 100, Duration.ofMillis(5), ExecutionContext.of(pool));
+
+    try {
+      provider.write(new TestLeaf(TestStep._0)).join();
+    } finally {
+      pool.shutdown();
+    }
+
+    Assertions.assertEquals(List.of("coalescing"), bulk.threads);
+  }
+
+  @Test
+  void failedBatchFailsEveryCaller() {
+    var bulk = new BulkProvider(true);
+    var provider = new CoalescingProvider<>(bulk, 2, Duration.ofSeconds(10));
+
+    var first = provider.write(new TestLeaf(TestStep._0));
+    var second = provider.write(new TestLeaf(TestStep._1));
+
+    Assertions.assertThrows(CompletionException.class, first::join);
+    Assertions.assertThrows(CompletionException.class, second::join);
+    Assertions.assertEquals(List.of(2), bulk.writes);
+  }
+
+  @Test
+  void missingOutputFailsEveryCaller() {
+    var bulk = new BulkProvider(false) {
+      @Override
+      public CompletableFuture<Stream<TestLeaf>> write(Stream<TestLeaf> leaves) {
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+    var provider = new CoalescingProvider<>(bulk, 2, Duration.ofSeconds(10));
+
+    var first = provider.write(new TestLeaf(TestStep._0));
+    var second = provider.write(new TestLeaf(TestStep._1));
+
+    var thrown = Assertions.assertThrows(CompletionException.class, first::join);
+    Assertions.assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    Assertions.assertThrows(CompletionException.class, second::join);
+  }
+
+  @Test
+  void closeWritesWhatIsStillBuffered() throws Exception {
+    var bulk = new BulkProvider(false);
+    var provider = new CoalescingProvider<>(bulk, 100, Duration.ofSeconds(10));
+
+    var pending = provider.write(new TestLeaf(TestStep._0));
+    provider.close();
+
+    Assertions.assertTrue(pending.isDone());
+    Assertions.assertEquals(List.of(1), bulk.writes);
+  }
+}
@@ -0,0 +1,82 @@
+package org.articioc.base.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AsyncLimiterTest {
+
+  @Test
+  void queuedTasksStartOnlyWhenASlotIsReleased() {
+    var limiter = new AsyncLimiter(2);
+    var gates = new ArrayList<CompletableFuture<Integer>>();
+    var started = new AtomicInteger();
+
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      var gate = new CompletableFuture<Integer>();
+      gates.add(gate);
+      results.add(limiter.submit(() -> {
+        started.incrementAndGet();
+        return gate;
+      }));
+    }
+
+    Assertions.assertEquals(2, started.get());
+    Assertions.assertEquals(2, limiter.stats().inFlight());
+    Assertions.assertEquals(3, limiter.stats().queued());
+
+    gates.get(0).complete(0);
+    Assertions.assertEquals(3, started.get());
+
+    gates.get(1).completeExceptionally(new RuntimeException("boom"));
+    Assertions.assertEquals(4, started.get());
+    Assertions.assertTrue(results.get(1).isCompletedExceptionally());
+
+    for (int i = 2; i < 5; i++) gates.get(i).complete(i);
+
+    Assertions.assertEquals(5, started.get());
+    Assertions.assertEquals(4, results.get(4).join());
+
+    var stats = limiter.stats();
+    Assertions.assertEquals(5, stats.started());
+    Assertions.assertEquals(3, stats.waited());
+    Assertions.assertEquals(0, stats.inFlight());
+    Assertions.assertEquals(0, stats.queued());
+    Assertions.assertTrue(stats.waitedNanos() > 0);
+  }
+
+  @Test
+  void synchronouslyCompletedTasksDoNotGrowTheStack() {
+    var limiter = new AsyncLimiter(1);
+    var gate = new CompletableFuture<Integer>();
+
+    limiter.submit(() -> gate);
+
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      var value = i;
+      results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+    }
+
+    gate.complete(-1);
+
+    Assertions.assertEquals(99_999, results.getLast().join());
+  }
+
+  @Test
+  void failingTaskSupplierReleasesItsSlot() {
+    var limiter = new AsyncLimiter(1);
+
+    var failed = limiter.<Integer>submit(() -> {
+      throw new IllegalStateException("boom");
+    });
+    var next = limiter.submit(() -> CompletableFuture.completedFuture(1));
+
+    Assertions.assertTrue(failed.isCompletedExceptionally());
+    Assertions.assertEquals(1, next.join());
+  }
+}
@@ -0,0 +1,88 @@
+package org.articioc.base.utils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChunkStreamTest {
+
+  @Test
+  void cutsByCountKeepingOrderAndNulls() {
+    var chunks = ChunkStream.chunked(Stream.of("a", null, "b", "c", null), 2).toList();
+
+    Assertions.assertEquals(
+        List.of(Arrays.asList("a", null), List.of("b", "c"), Arrays.asList((String) null)), chunks);
+  }
+
+  @Test
+  void chunkByStillReturnsStreams() {
+    var sizes = ChunkStream.chunkBy(IntStream.range(0, 10).boxed(), 4)
+        .map(Stream::count)
+        .toList();
+
+    Assertions.assertEquals(List.of(4L, 4L, 2L), sizes);
+    Assertions.assertEquals(0, ChunkStream.chunkBy(Stream.empty(), 4).count());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ChunkStream.chunkBy(Stream.empty(), 0));
+  }
+
+  @Test
+  void cutsBySizeBeforeTheElementThatDoesNotFit() {
+    var limits = ChunkStream.Limits.count(100).<String>bytes(5, String::length);
+
+    var chunks = ChunkStream.chunked(Stream.of("aa", "bb", "cc", "dddddddd", "e"), limits)
+        .toList();
+
+    Assertions.assertEquals(
+        List.of(List.of("aa", "bb"), List.of("cc"), List.of("dddddddd"), List.of("e")), chunks);
+  }
+
+  @Test
+  void cutsByLingerOnSlowSources() {
+    Iterator<Integer> slow = IntStream.range(0, 6).boxed().peek(i -> {
+      try {
+        Thread.sleep(i == 3 ? 60 : 0);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }).iterator();
+    var source = StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(slow, Spliterator.ORDERED), false);
+
+    var chunks = ChunkStream.chunked(
+            source, ChunkStream.Limits.count(100).linger(Duration.ofMillis(30)))
+        .toList();
+
+    Assertions.assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5)), chunks);
+  }
+
+  @Test
+  void splitsParallelInputs() {
+    var input = IntStream.range(0, 100_000).boxed().toList();
+
+    var chunks = ChunkStream.chunked(input.parallelStream(), 1000).toList();
+
+    Assertions.assertEquals(input, chunks.stream().flatMap(List::stream).toList());
+    Assertions.assertTrue(chunks.stream().allMatch(chunk -> chunk.size() <= 1000));
+    Assertions.assertNotNull(ChunkStream.chunked(input.stream(), 1000).spliterator().trySplit());
+  }
+
+  @Test
+  void closingTheChunksClosesTheInput() {
+    var closed = new boolean[1];
+
+    try (var chunks = ChunkStream.chunked(Stream.of(1, 2, 3).onClose(() -> closed[0] = true), 2)) {
+      Assertions.assertEquals(2, chunks.count());
+    }
+
+    Assertions.assertTrue(closed[0]);
+  }
+}
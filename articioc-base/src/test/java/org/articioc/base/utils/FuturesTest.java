@@ -0,0 +1,114 @@
+package org.articioc.base.utils;
+
+import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FuturesTest {
+
+  private static List<CompletableFuture<Integer>> pending(int count) {
+    var futures = new ArrayList<CompletableFuture<Integer>>();
+    for (int i = 0; i < count; i++) {
+      futures.add(new CompletableFuture<>());
+    }
+
+    return futures;
+  }
+
+  @Test
+  void collectKeepsTheOrderOfTheFutures() {
+    var futures = pending(3);
+    var collected = Futures.collect(futures);
+
+    futures.get(2).complete(2);
+    futures.get(0).complete(0);
+    Assertions.assertFalse(collected.isDone());
+
+    futures.get(1).complete(1);
+    Assertions.assertEquals(List.of(0, 1, 2), collected.join().toJavaList());
+    Assertions.assertTrue(Futures.collect(List.of()).join().isEmpty());
+  }
+
+  @Test
+  void collectWaitsForEveryFutureBeforeFailing() {
+    var futures = pending(2);
+    var collected = Futures.collect(futures);
+
+    futures.get(0).completeExceptionally(new IllegalStateException("Boom"));
+    Assertions.assertFalse(collected.isDone());
+
+    futures.get(1).complete(1);
+    Assertions.assertThrows(CompletionException.class, collected::join);
+  }
+
+  @Test
+  void collectFailFastCancelsTheOthers() {
+    var futures = pending(3);
+    var collected = Futures.collectFailFast(futures);
+
+    futures.get(1).completeExceptionally(new IllegalStateException("Boom"));
+
+    Assertions.assertTrue(collected.isCompletedExceptionally());
+    Assertions.assertTrue(futures.get(0).isCancelled());
+    Assertions.assertTrue(futures.get(2).isCancelled());
+  }
+
+  @Test
+  void traverseBoundsTheTasksRunningAtOnce() {
+    var futures = pending(10);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    var traversed = Futures.traverse(Stream.range(0, 10), 3, i -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      return futures.get(i).whenComplete((value, ex) -> running.decrementAndGet());
+    });
+
+    for (int i = 9; i >= 0; i--) {
+      futures.get(i).complete(i * 10);
+    }
+
+    Assertions.assertEquals(
+        List.of(0, 10, 20, 30, 40, 50, 60, 70, 80, 90), traversed.join().toJavaList());
+    Assertions.assertEquals(3, maxRunning.get());
+  }
+
+  @Test
+  void traverseStopsAtTheFirstFailure() {
+    var startedTasks = new AtomicInteger();
+
+    var traversed = Futures.traverse(Stream.range(0, 100), 2, i -> {
+      startedTasks.incrementAndGet();
+      if (i == 5) return CompletableFuture.failedFuture(new IllegalStateException("Boom"));
+      return CompletableFuture.completedFuture(i);
+    });
+
+    Assertions.assertThrows(CompletionException.class, traversed::join);
+    Assertions.assertTrue(startedTasks.get() <= 7);
+  }
+
+  @Test
+  void traverseCancelsTheRunningTasksOnFailure() {
+    var tasks = pending(3);
+
+    var traversed = Futures.traverse(Stream.range(0, 3), 3, tasks::get);
+    tasks.get(1).completeExceptionally(new IllegalStateException("Boom"));
+
+    Assertions.assertThrows(CompletionException.class, traversed::join);
+    Assertions.assertTrue(tasks.get(0).isCancelled());
+    Assertions.assertTrue(tasks.get(2).isCancelled());
+  }
+
+  @Test
+  void traverseKeepsTheStackFlatWithSynchronousTasks() {
+    var traversed = Futures.traverse(
+        Stream.range(0, 200_000), 1, i -> CompletableFuture.completedFuture(i));
+
+    Assertions.assertEquals(200_000, traversed.join().size());
+  }
+}
@@ -0,0 +1,69 @@
+package org.articioc.base.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class KeyedLanesTest {
+
+  @Test
+  void tasksWithTheSameKeyRunInOrderWhileOtherLanesGoOn() {
+    var lanes = new KeyedLanes(4);
+    var started = new CopyOnWriteArrayList<String>();
+
+    var first = "a";
+    var other = List.of("b", "c", "d", "e", "f")
+        .stream()
+        .filter(k -> lanes.laneOf(k) != lanes.laneOf(first))
+        .findFirst()
+        .orElseThrow();
+
+    var gate = new CompletableFuture<String>();
+    var a1 = lanes.submit(first, () -> {
+      started.add("a1");
+      return gate;
+    });
+    var a2 = lanes.submit(first, () -> {
+      started.add("a2");
+      return CompletableFuture.completedFuture("a2");
+    });
+    var b1 = lanes.submit(other, () -> {
+      started.add("b1");
+      return CompletableFuture.completedFuture("b1");
+    });
+
+    Assertions.assertEquals(List.of("a1", "b1"), started);
+    Assertions.assertTrue(b1.isDone());
+    Assertions.assertFalse(a2.isDone());
+
+    gate.completeExceptionally(new RuntimeException("boom"));
+
+    Assertions.assertTrue(a1.isCompletedExceptionally());
+    Assertions.assertEquals("a2", a2.join());
+    Assertions.assertEquals(List.of("a1", "b1", "a2"), started);
+  }
+
+  @Test
+  void synchronouslyCompletedTasksDoNotGrowTheStack() {
+    var lanes = new KeyedLanes(1);
+    var gate = new CompletableFuture<Integer>();
+
+    lanes.submit("key", () -> gate);
+
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      var value = i;
+      results.add(lanes.submit("key", () -> CompletableFuture.completedFuture(value)));
+    }
+
+    Assertions.assertEquals(100_000, lanes.queued()[0]);
+
+    gate.complete(-1);
+
+    Assertions.assertEquals(99_999, results.getLast().join());
+    Assertions.assertEquals(0, lanes.queued()[0]);
+  }
+}
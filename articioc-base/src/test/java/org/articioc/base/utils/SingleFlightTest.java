@@ -0,0 +1,68 @@
+package org.articioc.base.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  @Test
+  void callsWithTheSameKeyShareTheRunningOne() {
+    var flights = new SingleFlight<String, Integer>();
+    var calls = new AtomicInteger();
+    var gate = new CompletableFuture<Integer>();
+
+    var first = flights.execute("a", () -> {
+      calls.incrementAndGet();
+      return gate;
+    });
+    var second = flights.execute("a", () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(2);
+    });
+    var other = flights.execute("b", () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(3);
+    });
+
+    Assertions.assertTrue(first.leader());
+    Assertions.assertFalse(second.leader());
+    Assertions.assertSame(first.result(), second.result());
+    Assertions.assertEquals(3, other.result().join());
+    Assertions.assertEquals(new SingleFlight.Stats(2, 1, 1), flights.stats());
+
+    gate.complete(1);
+    Assertions.assertEquals(1, second.result().join());
+    Assertions.assertEquals(2, calls.get());
+  }
+
+  @Test
+  void completedCallsAreNotShared() {
+    var flights = new SingleFlight<String, Integer>();
+    var calls = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      flights.execute("a", () -> CompletableFuture.completedFuture(calls.incrementAndGet()));
+    }
+
+    Assertions.assertEquals(3, calls.get());
+    Assertions.assertEquals(new SingleFlight.Stats(3, 0, 0), flights.stats());
+  }
+
+  @Test
+  void failuresAreSharedAndReleaseTheKey() {
+    var flights = new SingleFlight<String, Integer>();
+    var gate = new CompletableFuture<Integer>();
+
+    var first = flights.execute("a", () -> gate);
+    var second = flights.execute("a", () -> CompletableFuture.completedFuture(2));
+
+    gate.completeExceptionally(new IllegalStateException("Boom"));
+
+    Assertions.assertTrue(first.result().isCompletedExceptionally());
+    Assertions.assertTrue(second.result().isCompletedExceptionally());
+    Assertions.assertEquals(
+        3, flights.execute("a", () -> CompletableFuture.completedFuture(3)).result().join());
+  }
+}
@@ -0,0 +1,51 @@
+package org.articioc.base.utils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StepCacheTest {
+
+  @Test
+  void leastRecentlyUsedEntriesAreEvicted() {
+    var cache = new StepCache<String, Integer>(2, null);
+
+    cache.put("a", 1);
+    cache.put("b", 2);
+    Assertions.assertEquals(Optional.of(1), cache.get("a"));
+
+    cache.put("c", 3);
+
+    Assertions.assertEquals(Optional.empty(), cache.get("b"));
+    Assertions.assertEquals(Optional.of(1), cache.get("a"));
+    Assertions.assertEquals(Optional.of(3), cache.get("c"));
+    Assertions.assertEquals(new StepCache.Stats(3, 1, 1, 0, 2), cache.stats());
+  }
+
+  @Test
+  void entriesExpireAfterTheirTtl() {
+    var now = new AtomicLong();
+    var cache = new StepCache<String, Integer>(10, Duration.ofSeconds(1), now::get);
+
+    cache.put("a", 1);
+    now.addAndGet(Duration.ofMillis(999).toNanos());
+    Assertions.assertEquals(Optional.of(1), cache.get("a"));
+
+    now.addAndGet(Duration.ofMillis(1).toNanos());
+    Assertions.assertEquals(Optional.empty(), cache.get("a"));
+
+    var stats = cache.stats();
+    Assertions.assertEquals(1, stats.expirations());
+    Assertions.assertEquals(0, stats.size());
+    Assertions.assertEquals(0.5, stats.hitRate());
+  }
+
+  @Test
+  void invalidInputIsRejected() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new StepCache<>(0, null));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> new StepCache<>(1, Duration.ZERO));
+  }
+}
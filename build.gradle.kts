@@ -7,6 +7,8 @@ plugins {
 	id("jacoco-report-aggregation")
 
 	id("com.diffplug.spotless") version "8.3.0"
+
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "org.articioc"
@@ -32,6 +34,7 @@ dependencies {
 	testFixturesImplementation(platform(libs.junit.bom))
 	testFixturesImplementation(libs.bundles.junit)
 
+	jmh(testFixtures(project(":")))
 
 
 	jacocoAggregation(project(":articioc-base"))
@@ -43,6 +46,12 @@ tasks.test {
 	useJUnitPlatform()
 }
 
+jmh {
+	jmhVersion = libs.versions.jmh
+	includes = providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(listOf())
+	profilers = providers.gradleProperty("jmh.profilers").map { listOf(it) }.orElse(listOf())
+}
+
 tasks.jacocoTestCoverageVerification {
 	violationRules {
 		rule {
@@ -13,9 +13,21 @@ import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
 import org.articioc.base.Leaf;
 import org.articioc.base.Step;
+import org.articioc.base.execution.ExecutionContext;
 import swapi.http.*;
 
 public class Steps {
+  private final ExecutionContext executionContext;
+
+  /** The HTTP calls block, so each of them runs on its own virtual thread. */
+  public Steps() {
+    this(ExecutionContext.virtualThreads());
+  }
+
+  public Steps(ExecutionContext executionContext) {
+    this.executionContext = executionContext;
+  }
+
   public static class MovieStep extends Step {
     public static final MovieStep WITH_MOVIE_TITLE = new MovieStep("with-movie-title");
     public static final MovieStep WITH_DETAILS = new MovieStep("with-details");
@@ -116,9 +128,9 @@ public class Steps {
 
   public CompletableFuture<StarWarsCharacterInMovie> fetchFilmMetadata(
       StarWarsCharacterInMovie movie) {
-    return CompletableFuture.supplyAsync(
-            () -> Unirest.get("https://www.swapi.tech/api/films?title=" + movie.getTitle())
-                .asObject(new GenericType<OkList<FilmResponse>>() {}))
+    return executionContext
+        .supplyAsync(() -> Unirest.get("https://www.swapi.tech/api/films?title=" + movie.getTitle())
+            .asObject(new GenericType<OkList<FilmResponse>>() {}))
         .thenApply(HttpResponse::getBody)
         .thenApply(OkList::getResult)
         .thenApply(e -> e.stream().findFirst().map(Properties::getProperties))
@@ -147,7 +159,7 @@ public class Steps {
   public Stream<CompletableFuture<StarWarsCharacterInMovie>> oneToAsManyCharactersInFilm(
       StarWarsCharacterInMovie movie) {
     Function<String, CompletableFuture<StarWarsCharacter>> fetchCharacter = id ->
-        CompletableFuture.supplyAsync(() -> Unirest.get("https://www.swapi.tech/api/people/" + id)
+        executionContext.supplyAsync(() -> Unirest.get("https://www.swapi.tech/api/people/" + id)
                 .asObject(new GenericType<Ok<StarWarsCharacter>>() {}))
             .thenApply(HttpResponse::getBody)
             .thenApply(Ok::getResult)
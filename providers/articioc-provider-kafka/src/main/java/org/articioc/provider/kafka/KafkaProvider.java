@@ -15,6 +15,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.articioc.base.Leaf;
 import org.articioc.base.LeafCarrier;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.interfaces.Provider;
 import org.articioc.base.utils.Futures;
 import org.articioc.provider.kafka.serialization.JsonSerializer;
@@ -26,14 +27,22 @@ public class KafkaProvider<A extends Leaf<M>, M> implements Provider<A> {
   private final KafkaConsumer<String, A> consumer;
   private final KafkaProducer<String, A> producer;
   private final Duration pollTimeout;
+  private final ExecutionContext executionContext;
 
+  /**
+   * @param executionContext where the blocking calls of consumer and producer are run. Defaults to
+   *     {@link ExecutionContext#commonPool()}.
+   */
   public KafkaProvider(
       Class<A> type,
       String topic,
       Properties consumerProperties,
       Properties producerProperties,
-      Duration pollTimeout) {
+      Duration pollTimeout,
+      ExecutionContext executionContext) {
     this.topic = topic;
+    this.executionContext =
+        Optional.ofNullable(executionContext).orElseGet(ExecutionContext::commonPool);
 
     consumerProperties.put(
         ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
@@ -54,9 +63,18 @@ public class KafkaProvider<A extends Leaf<M>, M> implements Provider<A> {
     this.pollTimeout = Optional.ofNullable(pollTimeout).orElse(DEFAULT_POLL_DURATION);
   }
 
+  public KafkaProvider(
+      Class<A> type,
+      String topic,
+      Properties consumerProperties,
+      Properties producerProperties,
+      Duration pollTimeout) {
+    this(type, topic, consumerProperties, producerProperties, pollTimeout, null);
+  }
+
   public KafkaProvider(
       Class<A> type, String topic, Properties consumerProperties, Properties producerProperties) {
-    this(type, topic, consumerProperties, producerProperties, null);
+    this(type, topic, consumerProperties, producerProperties, null, null);
   }
 
   @Override
@@ -67,14 +85,14 @@ public class KafkaProvider<A extends Leaf<M>, M> implements Provider<A> {
         .map(r -> Optional.ofNullable(r)
             .map(ConsumerRecord::value)
             .map(v -> LeafCarrier.from(v)
-                .withCommit((options) -> CompletableFuture.supplyAsync(() -> {
+                .withCommit((options) -> executionContext.supplyAsync(() -> {
                   consumer.commitSync(Map.of(
                       new TopicPartition(r.topic(), r.partition()),
                       new OffsetAndMetadata(r.offset())));
 
                   return v;
                 }))
-                .withRollback(options -> CompletableFuture.supplyAsync(() -> {
+                .withRollback(options -> executionContext.supplyAsync(() -> {
                   consumer.seek(
                       new TopicPartition(r.topic(), r.partition()),
                       new OffsetAndMetadata(r.offset()));
@@ -91,7 +109,7 @@ public class KafkaProvider<A extends Leaf<M>, M> implements Provider<A> {
   public CompletableFuture<A> write(A leaf) {
     var record = new ProducerRecord<>(this.topic, leaf.key(), leaf);
 
-    return CompletableFuture.supplyAsync(() -> {
+    return executionContext.supplyAsync(() -> {
           try {
             return producer.send(record).get();
           } catch (InterruptedException | ExecutionException e) {
@@ -103,7 +121,7 @@ public class KafkaProvider<A extends Leaf<M>, M> implements Provider<A> {
 
   @Override
   public CompletableFuture<Stream<A>> write(Stream<A> leaves) {
-    return Futures.whenAllAsStream(leaves.map(this::write));
+    return Futures.collect(leaves.map(this::write));
   }
 
   @Override
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Objects;
 import java.util.function.Function;
 import org.articioc.base.Leaf;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.providers.jdbc.JdbcPollerProvider;
 import org.articioc.providers.jdbc.models.QueryOptions;
 import org.articioc.providers.poller.PollerMetadata;
@@ -60,7 +61,18 @@ public class PostgresPollerProvider<A extends Leaf<M>, M extends PollerMetadata>
 
   protected PostgresPollerProvider(
       Jdbi connection, RowMapper<A> mapper, String tableName, Integer limit, ObjectMapper json, String id) {
-    super(connection, mapper, tableName, limit, json, SELECT, TAKE, UPSERT, id);
+    this(connection, mapper, tableName, limit, json, id, null);
+  }
+
+  protected PostgresPollerProvider(
+      Jdbi connection,
+      RowMapper<A> mapper,
+      String tableName,
+      Integer limit,
+      ObjectMapper json,
+      String id,
+      ExecutionContext executionContext) {
+    super(connection, mapper, tableName, limit, json, SELECT, TAKE, UPSERT, id, executionContext);
   }
 
   public static class Builder<A extends Leaf<M>, M extends PollerMetadata> {
@@ -70,6 +82,7 @@ public class PostgresPollerProvider<A extends Leaf<M>, M extends PollerMetadata>
     private Integer limit;
     private ObjectMapper json;
     private String id;
+    private ExecutionContext executionContext;
 
     public Builder(Jdbi connection, RowMapper<A> mapper) {
       this.connection = Objects.requireNonNull(connection);
@@ -96,10 +109,15 @@ public class PostgresPollerProvider<A extends Leaf<M>, M extends PollerMetadata>
       return this;
     }
 
+    public PostgresPollerProvider.Builder<A, M> executionContext(ExecutionContext executionContext) {
+      this.executionContext = executionContext;
+      return this;
+    }
+
 
     public PostgresPollerProvider<A, M> build() {
       return new PostgresPollerProvider<>(
-          this.connection, this.mapper, this.tableName, this.limit, this.json, this.id);
+          this.connection, this.mapper, this.tableName, this.limit, this.json, this.id, this.executionContext);
     }
   }
 }
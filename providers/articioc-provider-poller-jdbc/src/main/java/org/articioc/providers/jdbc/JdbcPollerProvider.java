@@ -21,6 +21,7 @@ import io.vavr.control.Try;
 import org.articioc.base.Leaf;
 import org.articioc.base.LeafCarrier;
 import org.articioc.base.Step;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.utils.Futures;
 import org.articioc.providers.jdbc.exceptions.NoAffectedRowsException;
 import org.articioc.providers.jdbc.models.QueryOptions;
@@ -73,6 +74,8 @@ public abstract class JdbcPollerProvider<A extends Leaf<M>, M extends PollerMeta
   private final GenericType<A> type;
 
   private final ObjectMapper json;
+  private final ExecutionContext readContext;
+  private final ExecutionContext writeContext;
 
   protected JdbcPollerProvider(
       Jdbi connection,
@@ -84,6 +87,28 @@ public abstract class JdbcPollerProvider<A extends Leaf<M>, M extends PollerMeta
       Function<QueryOptions, String> takeQuery,
       Function<QueryOptions, String> upsertQuery,
       String id) {
+    this(connection, mapper, tableName, limit, json, identifyRecordsQuery, takeQuery, upsertQuery, id, null);
+  }
+
+  /**
+   * @param executionContext where the queries, that block the calling thread, are run. When
+   *                         {@code null} reads run on {@link ExecutionContext#commonPool()} and writes
+   *                         on the calling thread, a context that tolerates blocking like
+   *                         {@link ExecutionContext#virtualThreads()} is advised.
+   */
+  protected JdbcPollerProvider(
+      Jdbi connection,
+      RowMapper<A> mapper,
+      String tableName,
+      Integer limit,
+      ObjectMapper json,
+      Function<QueryOptions, String> identifyRecordsQuery,
+      Function<QueryOptions, String> takeQuery,
+      Function<QueryOptions, String> upsertQuery,
+      String id,
+      ExecutionContext executionContext) {
+    this.readContext = Optional.ofNullable(executionContext).orElseGet(ExecutionContext::commonPool);
+    this.writeContext = Optional.ofNullable(executionContext).orElseGet(ExecutionContext::inline);
     this.type = new GenericType<>() {};
     this.connection = connection
         .setSqlLogger(new Slf4JSqlLogger())
@@ -158,7 +183,7 @@ public abstract class JdbcPollerProvider<A extends Leaf<M>, M extends PollerMeta
           .toJavaList();
     };
 
-    return CompletableFuture.supplyAsync(() -> connection
+    return readContext.supplyAsync(() -> connection
         .inTransaction(selectRecordsAndTakeInChargeToProcess::apply))
         .thenApply(Stream::ofAll);
   }
@@ -214,17 +239,15 @@ public abstract class JdbcPollerProvider<A extends Leaf<M>, M extends PollerMeta
           .execute());
     };
 
-    return CompletableFuture.completedFuture(connection)
-        .thenApply(upsert)
+    return writeContext.supplyAsync(() -> upsert.apply(connection))
         .thenCompose(this::failIfNoRecordsWhereWrittenOrReturn)
         .thenApply(ignore -> leaf);
   }
 
   @Override
   public CompletableFuture<Stream<A>> write(Stream<A> leaves) {
-    var writes = leaves.map(this::write);
-
-    return Futures.whenAllAsStream(writes);
+    /* Each upsert holds a connection, so at most one per thread of the context runs at once. */
+    return Futures.traverse(leaves, writeContext.parallelism(), this::write);
   }
 
   @Override
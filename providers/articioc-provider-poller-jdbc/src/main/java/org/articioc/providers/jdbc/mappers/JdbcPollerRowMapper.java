@@ -73,7 +73,7 @@ public class JdbcPollerRowMapper<A extends Leaf<JdbcPollerRecordMetadata> & With
         .map(status -> new JdbcPollerRecordMetadata(status, tentative, notBefore))
         .orElse(null);
 
-    Step step = new Step(rs.getString(COLUMN_STEP));
+    Step step = Optional.ofNullable(rs.getString(COLUMN_STEP)).map(Step::lookup).orElse(null);
 
     Function<String, Leaf<JdbcPollerRecordMetadata>> buildFromPayload = payload -> {
       try {
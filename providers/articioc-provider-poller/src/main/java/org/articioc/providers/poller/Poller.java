@@ -24,6 +24,13 @@ public interface Poller<A extends Leaf<M>, M extends PollerMetadata> extends Pro
             .withRollback(rollbackOperation(r.getData()))));
   }
 
+  /* Records that produced nothing are marked as Done, see commitOperation. In batch, the output
+   * of a record is the one with its key. */
+  @Override
+  default boolean commitsOnOwnOutput() {
+    return true;
+  }
+
   default CommitOperation<A> commitOperation(A input) {
     return (options) -> {
 
@@ -123,7 +123,7 @@ public class RedisStreamProvider<A extends Leaf<M>, M> implements Provider<A> {
 
   @Override
   public CompletableFuture<Stream<A>> write(Stream<A> leaves) {
-    return Futures.whenAllAsStream(leaves.map(this::write));
+    return Futures.collect(leaves.map(this::write));
   }
 
   @Override
@@ -0,0 +1,66 @@
+package org.articioc;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.Step;
+import org.articioc.interfaces.CheckpointPipeline;
+import org.articioc.interfaces.ErrorPipeline;
+import org.articioc.interfaces.Outcome;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a record through the synchronous steps of a checkpoint, composed with {@link
+ * CheckpointPipeline#andThen} as the builder did before, and compiled in a {@link PipelineStep}.
+ * Run with {@code -Pjmh.profilers=gc} to compare the bytes allocated per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckpointPlanBenchmark {
+
+  @Param({"1", "5", "20"})
+  public int steps;
+
+  private CheckpointPipeline<TestLeaf> composed;
+  private PipelineStep<TestLeaf, Step> compiled;
+  private Stream<TestLeaf> records;
+
+  @Setup
+  public void setup() {
+    var each = List.<CheckpointPipeline<TestLeaf>>fill(
+        steps,
+        () -> input -> CompletableFuture.completedFuture(Outcome.next(input)));
+
+    this.composed = each.foldLeft(CheckpointPipeline.identity(), CheckpointPipeline::andThen);
+    this.compiled = new PipelineStep<>(
+        TestStep._0, TestStep._1, each, ErrorPipeline.identity(), null);
+    this.records = Stream.of(new TestLeaf(TestStep._0));
+  }
+
+  @Benchmark
+  public Outcome<TestLeaf> composed() {
+    return composed.apply(records).join();
+  }
+
+  @Benchmark
+  public Outcome<TestLeaf> compiled() {
+    return compiled.run(records).join();
+  }
+}
@@ -0,0 +1,78 @@
+package org.articioc;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.articioc.base.utils.ChunkStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Splits 1M integers in chunks of the given size and sums the size of each chunk, with the
+ * previous {@code Stream.generate} based chunking and with {@link ChunkStream#chunked}, sequential
+ * and on a parallel input.
+ *
+ * <p>Parallel speed-up is bounded by the cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkStreamBenchmark {
+
+  private static final int ELEMENTS = 1_000_000;
+
+  @Param({"10", "1000"})
+  public int chunkSize;
+
+  private List<Integer> input;
+
+  @Setup
+  public void setup() {
+    this.input = IntStream.range(0, ELEMENTS).boxed().toList();
+  }
+
+  @Benchmark
+  public long generateBased() {
+    return generateBased(input.stream(), chunkSize).mapToLong(Stream::count).sum();
+  }
+
+  @Benchmark
+  public long spliterator() {
+    return ChunkStream.chunked(input.stream(), chunkSize).mapToLong(List::size).sum();
+  }
+
+  @Benchmark
+  public long spliteratorParallel() {
+    return ChunkStream.chunked(input.parallelStream(), chunkSize).mapToLong(List::size).sum();
+  }
+
+  /* The implementation of ChunkStream.chunkBy before it was backed by a spliterator. */
+  private static <T> Stream<Stream<T>> generateBased(Stream<T> inputStream, int chunkSize) {
+    Iterator<T> iterator = inputStream.iterator();
+
+    return Stream.generate(() -> {
+          List<T> chunk = Stream.generate(() -> iterator.hasNext() ? iterator.next() : null)
+              .limit(chunkSize)
+              .filter(Objects::nonNull)
+              .toList();
+          return chunk.isEmpty() ? null : chunk.stream();
+        })
+        .takeWhile(Objects::nonNull)
+        .onClose(inputStream::close);
+  }
+}
@@ -0,0 +1,85 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.interfaces.ProviderSync;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.Pipeline;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of a request/response execution through {@link Articioc#pipeline()}: with {@link
+ * EmptyProvider} checkpoints are run without the provider's bookkeeping, while a provider that
+ * behaves the same way but isn't recognized as empty goes through write, commit and rollback.
+ *
+ * <p>Sample time mode reports the p50/p99 of each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmptyProviderFastPathBenchmark {
+
+  /** Same behaviour as {@link EmptyProvider}, without being one. */
+  static class NoopProvider implements ProviderSync<TestLeaf> {
+    @Override
+    public Stream<LeafCarrier<TestLeaf>> readSync() {
+      return Stream.empty();
+    }
+
+    @Override
+    public TestLeaf writeSync(TestLeaf leaf) {
+      return leaf;
+    }
+
+    @Override
+    public Stream<TestLeaf> writeSync(Stream<TestLeaf> leaves) {
+      return leaves;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private Pipeline<TestLeaf> withEmptyProvider;
+  private Pipeline<TestLeaf> withNoopProvider;
+
+  @Setup
+  public void setup() {
+    var articioc = Utils.basic(new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0))
+        .end();
+
+    this.withEmptyProvider = articioc.pipeline();
+    this.withNoopProvider = articioc.pipeline(new NoopProvider());
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> request() {
+    return CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0)));
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> emptyProvider() {
+    return withEmptyProvider.apply(request()).join().toList().toStream();
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> persistenceBookkeeping() {
+    return withNoopProvider.apply(request()).join().toList().toStream();
+  }
+}
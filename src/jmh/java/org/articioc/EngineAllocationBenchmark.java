@@ -0,0 +1,92 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.interfaces.ProviderSync;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.Pipeline;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocations of the engine while a batch of records goes through the basic pipeline, with and
+ * without the provider's bookkeeping. Each operation is a single record, run with {@code
+ * -Pjmh.profilers=gc} to read the bytes allocated per record ({@code gc.alloc.rate.norm}).
+ *
+ * <p>Records go through the pipeline in the same batch, each of them is duplicated at the last
+ * checkpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineAllocationBenchmark {
+
+  private static final int BATCH_SIZE = 100;
+
+  /** Same behaviour as {@link EmptyProvider}, without being one. */
+  static class NoopProvider implements ProviderSync<TestLeaf> {
+    @Override
+    public Stream<LeafCarrier<TestLeaf>> readSync() {
+      return Stream.empty();
+    }
+
+    @Override
+    public TestLeaf writeSync(TestLeaf leaf) {
+      return leaf;
+    }
+
+    @Override
+    public Stream<TestLeaf> writeSync(Stream<TestLeaf> leaves) {
+      return leaves;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private Pipeline<TestLeaf> withEmptyProvider;
+  private Pipeline<TestLeaf> withNoopProvider;
+
+  @Setup
+  public void setup() {
+    var articioc = Utils.basic(new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0))
+        .end();
+
+    this.withEmptyProvider = articioc.pipeline();
+    this.withNoopProvider = articioc.pipeline(new NoopProvider());
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> batch() {
+    return CompletableFuture.completedFuture(
+        Stream.range(0, BATCH_SIZE).map(i -> new TestLeaf(TestStep._0)).toList().toStream());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int emptyProvider() {
+    return withEmptyProvider.apply(batch()).join().size();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int persistenceBookkeeping() {
+    return withNoopProvider.apply(batch()).join().size();
+  }
+}
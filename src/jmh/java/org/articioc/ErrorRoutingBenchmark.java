@@ -0,0 +1,132 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.Step;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.exceptions.SkipNextSteps;
+import org.articioc.interfaces.Outcome;
+import org.articioc.interfaces.Pipeline;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.interfaces.manyTo.ManyToOutcome;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the engine's control flow when every checkpoint ends early: either a step fails and
+ * {@code onError} moves the records to the next checkpoint, or a step skips the remaining steps.
+ *
+ * <p>The failure thrown by the steps is allocated once, so only the engine's own handling is
+ * measured. Each invocation runs 16 records through 4 checkpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorRoutingBenchmark {
+
+  private static final RuntimeException FAILURE = new IllegalStateException("Boom");
+  private static final int RECORDS = 16;
+
+  private Pipeline<TestLeaf> noErrors;
+  private Pipeline<TestLeaf> routedOnError;
+  private Pipeline<TestLeaf> skippedByThrowing;
+  private Pipeline<TestLeaf> skippedByOutcome;
+
+  @Setup
+  public void setup() {
+    this.noErrors = Utils.basic(new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0))
+        .end()
+        .pipeline();
+
+    ManyToMany<TestLeaf> fail = records -> {
+      throw FAILURE;
+    };
+
+    this.routedOnError = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .addStep(fail)
+        .onError(TestStep._1)
+        .checkpoint(TestStep._1)
+        .addStep(fail)
+        .onError(TestStep._2)
+        .checkpoint(TestStep._2)
+        .addStep(fail)
+        .onError(TestStep._3)
+        .checkpoint(TestStep._3)
+        .addStep(fail)
+        .onError((ex, records) -> CompletableFuture.completedFuture(records))
+        .end()
+        .pipeline();
+
+    this.skippedByThrowing = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .addStep(throwSkipTo(TestStep._1))
+        .checkpoint(TestStep._1)
+        .addStep(throwSkipTo(TestStep._2))
+        .checkpoint(TestStep._2)
+        .addStep(throwSkipTo(TestStep._3))
+        .checkpoint(TestStep._3)
+        .addStep(throwSkipTo(Step.FINAL))
+        .end()
+        .pipeline();
+
+    this.skippedByOutcome = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .addStep(redirectTo(TestStep._1))
+        .checkpoint(TestStep._1)
+        .addStep(redirectTo(TestStep._2))
+        .checkpoint(TestStep._2)
+        .addStep(redirectTo(TestStep._3))
+        .checkpoint(TestStep._3)
+        .addStep(redirectTo(Step.FINAL))
+        .end()
+        .pipeline();
+  }
+
+  private static ManyToMany<TestLeaf> throwSkipTo(Step next) {
+    return records -> {
+      throw new SkipNextSteps(records.map(e -> e.setStep(next)));
+    };
+  }
+
+  private static ManyToOutcome<TestLeaf> redirectTo(Step next) {
+    return records -> Outcome.redirect(records, next);
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> request() {
+    return CompletableFuture.completedFuture(
+        Stream.range(0, RECORDS).map(i -> new TestLeaf(TestStep._0)));
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> noErrors() {
+    return noErrors.apply(request()).join().toList().toStream();
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> routedOnError() {
+    return routedOnError.apply(request()).join().toList().toStream();
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> skippedByThrowing() {
+    return skippedByThrowing.apply(request()).join().toList().toStream();
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> skippedByOutcome() {
+    return skippedByOutcome.apply(request()).join().toList().toStream();
+  }
+}
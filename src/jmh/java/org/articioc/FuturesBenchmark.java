@@ -0,0 +1,89 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.utils.Futures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Combines the given number of pending futures, completes them, then reads every result: with the
+ * previous {@code allOf} based {@code whenAllAsStream}, with {@link Futures#collect} and with
+ * {@link Futures#traverse} starting 64 tasks at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuturesBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  public int futures;
+
+  private List<CompletableFuture<Integer>> pending() {
+    var pending = new ArrayList<CompletableFuture<Integer>>(futures);
+    for (int i = 0; i < futures; i++) {
+      pending.add(new CompletableFuture<>());
+    }
+
+    return pending;
+  }
+
+  private static long completeAndSum(
+      List<CompletableFuture<Integer>> pending, CompletableFuture<Stream<Integer>> combined) {
+    for (int i = 0; i < pending.size(); i++) {
+      pending.get(i).complete(i);
+    }
+
+    long sum = 0;
+    for (int value : combined.join()) {
+      sum += value;
+    }
+
+    return sum;
+  }
+
+  @Benchmark
+  public long allOf() {
+    var pending = pending();
+    return completeAndSum(pending, allOfBased(Stream.ofAll(pending)));
+  }
+
+  @Benchmark
+  public long collect() {
+    var pending = pending();
+    return completeAndSum(pending, Futures.collect(pending));
+  }
+
+  @Benchmark
+  public long traverse() {
+    var pending = pending();
+    return completeAndSum(
+        pending, Futures.traverse(Stream.range(0, futures), 64, pending::get));
+  }
+
+  /* The implementation of Futures.whenAllAsStream before the eager combinators. */
+  @SuppressWarnings("unchecked")
+  private static <E> CompletableFuture<Stream<E>> allOfBased(Stream<CompletableFuture<E>> input) {
+    var futures = input.toJavaArray(CompletableFuture[]::new);
+
+    return CompletableFuture.allOf(futures)
+        .thenApply(v ->
+            Stream.of(futures)
+                .map(f -> (CompletableFuture<E>) f)
+                .map(CompletableFuture::join));
+  }
+}
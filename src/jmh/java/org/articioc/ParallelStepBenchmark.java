@@ -0,0 +1,104 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.Pipeline;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A CPU-bound many-to-many step applied to a batch of 4096 records, with {@code addStep} and with
+ * {@code addParallelStep} on a work-stealing pool of the given number of threads.
+ *
+ * <p>Scaling is bounded by the cores of the machine: with a single core the parallel variants
+ * only show the cost of chunking and merging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStepBenchmark {
+
+  private static final int RECORDS = 4_096;
+  private static final int ROUNDS = 2_000;
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private ForkJoinPool pool;
+  private Pipeline<TestLeaf> sequential;
+  private Pipeline<TestLeaf> parallel;
+
+  @Setup
+  public void setup() {
+    this.pool = new ForkJoinPool(threads);
+
+    ManyToMany<TestLeaf> score = records -> records.map(e -> e.setStep1(score(e.getStep0())));
+
+    this.sequential = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addStep(score)
+        .end()
+        .pipeline();
+
+    var options = new StepOptions<TestLeaf, TestStep>()
+        .setParallel(new StepOptions.ParallelOptions<>(
+            RECORDS / (threads * 4), true, ExecutionContext.of(pool)));
+
+    this.parallel = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addParallelStep(score, options)
+        .end()
+        .pipeline();
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  private static String score(String value) {
+    long hash = value.hashCode();
+    for (int i = 0; i < ROUNDS; i++) {
+      hash ^= hash << 13;
+      hash ^= hash >>> 7;
+      hash ^= hash << 17;
+    }
+
+    return Long.toHexString(hash);
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> request() {
+    return CompletableFuture.completedFuture(Stream.range(0, RECORDS)
+        .map(i -> new TestLeaf(TestStep._0).setStep0("record-" + i)));
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> sequential() {
+    return sequential.apply(request()).join().toList().toStream();
+  }
+
+  @Benchmark
+  public Stream<TestLeaf> parallel() {
+    return parallel.apply(request()).join().toList().toStream();
+  }
+}
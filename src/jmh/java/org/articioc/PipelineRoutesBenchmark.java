@@ -0,0 +1,79 @@
+package org.articioc;
+
+import io.vavr.collection.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.articioc.base.Step;
+import org.articioc.interfaces.CheckpointPipeline;
+import org.articioc.interfaces.ErrorPipeline;
+import org.articioc.tests.models.TestLeaf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the linear scan that was used to resolve the checkpoint of each record with the
+ * {@link PipelineRoutes} index compiled at {@link Articioc.Builder#end()}.
+ *
+ * <p>Each invocation routes a whole batch of records spread over all the checkpoints. Records carry
+ * fresh {@link Step} instances, as they do when deserialized by a provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineRoutesBenchmark {
+
+  private static final int BATCH_SIZE = 1_000;
+
+  @Param({"5", "50", "200"})
+  public int checkpoints;
+
+  private List<PipelineStep<TestLeaf, Step>> steps;
+  private PipelineRoutes<TestLeaf> routes;
+  private Step[] batch;
+
+  @Setup
+  public void setup() {
+    this.steps = List.range(0, checkpoints)
+        .map(i -> new PipelineStep<>(
+            new Step("step-" + i),
+            new Step("step-" + (i + 1)),
+            CheckpointPipeline.<TestLeaf>identity(),
+            ErrorPipeline.<TestLeaf>identity()));
+
+    this.routes = PipelineRoutes.compile(steps);
+
+    this.batch = new Step[BATCH_SIZE];
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch[i] = new Step("step-" + (i % checkpoints));
+    }
+  }
+
+  @Benchmark
+  public void linearScan(Blackhole bh) {
+    for (Step step : batch) {
+      Optional<PipelineStep<TestLeaf, Step>> found =
+          steps.find(r -> r.getFrom().equals(step)).toJavaOptional();
+      bh.consume(found);
+    }
+  }
+
+  @Benchmark
+  public void compiledRoutes(Blackhole bh) {
+    for (Step step : batch) {
+      bh.consume(routes.route(step));
+    }
+  }
+}
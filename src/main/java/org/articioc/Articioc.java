@@ -1,31 +1,38 @@
 package org.articioc;
 
-import static org.articioc.base.utils.Futures.whenAll;
+import static org.articioc.base.utils.Futures.collect;
 
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
 import io.vavr.collection.List;
 import io.vavr.collection.Stream;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import org.articioc.base.Leaf;
 import org.articioc.base.LeafCarrier;
 import org.articioc.base.Step;
-import org.articioc.base.interfaces.CommitOperation;
+import org.articioc.base.StepRegistry;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.interfaces.Provider;
 import org.articioc.base.interfaces.ProviderAsExecutor;
-import org.articioc.base.interfaces.RollbackOperation;
 import org.articioc.base.models.CommitOperationOptions;
 import org.articioc.base.models.RollbackOperationOptions;
 import org.articioc.base.providers.EmptyProvider;
+import org.articioc.base.utils.AsyncLimiter;
+import org.articioc.base.utils.KeyedLanes;
 import org.articioc.exceptions.SkipNextSteps;
-import org.articioc.exceptions.SkipPipelineSinceThereAreNoRecordsToProcess;
+import org.articioc.interfaces.CheckpointPipeline;
 import org.articioc.interfaces.ErrorPipeline;
+import org.articioc.interfaces.Outcome;
 import org.articioc.interfaces.Pipeline;
 import org.articioc.interfaces.endless.EndlessOperations;
 import org.articioc.interfaces.errors.OnErrorOperations;
@@ -36,20 +43,58 @@ import org.articioc.interfaces.oneTo.OneToOperations;
 import org.articioc.interfaces.triggers.FutureTriggerOfMany;
 import org.articioc.interfaces.triggers.FutureTriggerOfOne;
 import org.articioc.interfaces.triggers.TriggerOfMany;
+import org.articioc.metrics.PipelineMetrics;
+import org.articioc.metrics.PipelineMetrics.Event;
+import org.articioc.metrics.PipelineMetrics.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The steps between two checkpoints, compiled in a flat array: {@link #run} chains the steps that
+ * complete synchronously in a loop instead of going through a {@link Function} per step.
+ */
 class PipelineStep<A, S> {
   private final S from;
   private final S to;
-  private Pipeline<A> pipeline;
-  private ErrorPipeline<A> errorPipeline;
+  private final CheckpointPipeline<A>[] steps;
+  private final ErrorPipeline<A> errorPipeline;
+  private final AsyncLimiter limiter;
 
-  public PipelineStep(S from, S to, Pipeline<A> pipeline, ErrorPipeline<A> errorPipeline) {
+  public PipelineStep(
+      S from, S to, CheckpointPipeline<A> pipeline, ErrorPipeline<A> errorPipeline) {
+    this(from, to, List.of(Objects.requireNonNull(pipeline)), errorPipeline, null);
+  }
+
+  public PipelineStep(
+      S from,
+      S to,
+      List<CheckpointPipeline<A>> steps,
+      ErrorPipeline<A> errorPipeline,
+      Integer maxInFlight) {
+    this(
+        from,
+        to,
+        toArray(steps),
+        errorPipeline,
+        Optional.ofNullable(maxInFlight).map(AsyncLimiter::new).orElse(null));
+  }
+
+  private PipelineStep(
+      S from,
+      S to,
+      CheckpointPipeline<A>[] steps,
+      ErrorPipeline<A> errorPipeline,
+      AsyncLimiter limiter) {
     this.from = Objects.requireNonNull(from);
     this.to = Objects.requireNonNull(to);
-    this.pipeline = Objects.requireNonNull(pipeline);
+    this.steps = steps;
     this.errorPipeline = Objects.requireNonNull(errorPipeline);
+    this.limiter = limiter;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <A> CheckpointPipeline<A>[] toArray(List<CheckpointPipeline<A>> steps) {
+    return steps.toJavaArray(CheckpointPipeline[]::new);
   }
 
   public S getFrom() {
@@ -60,18 +105,61 @@ class PipelineStep<A, S> {
     return to;
   }
 
-  public Pipeline<A> getPipeline() {
-    return pipeline;
-  }
-
   public ErrorPipeline<A> getErrorPipeline() {
     return errorPipeline;
   }
 
-  public PipelineStep<A, S> andThen(Pipeline<A> next) {
-    this.pipeline = pipeline.andThen(next);
+  public Optional<AsyncLimiter> getLimiter() {
+    return Optional.ofNullable(limiter);
+  }
+
+  /** A copy with {@code next} as last step, sharing the limiter. */
+  public PipelineStep<A, S> andThen(CheckpointPipeline<A> next) {
+    var appended = Arrays.copyOf(steps, steps.length + 1);
+    appended[steps.length] = next;
 
-    return this;
+    return new PipelineStep<>(from, to, appended, errorPipeline, limiter);
+  }
+
+  /**
+   * Runs the steps in order. Records that skipped the remaining steps are returned without running
+   * them, steps that throw fail the returned future.
+   */
+  public CompletableFuture<Outcome<A>> run(Stream<A> records) {
+    return run(records, 0);
+  }
+
+  /* Synchronous steps are chained in place, a continuation is only allocated when a step is
+   * still running once it returns. */
+  private CompletableFuture<Outcome<A>> run(Stream<A> records, int first) {
+    var current = records;
+    CompletableFuture<Outcome<A>> executed = null;
+
+    for (int i = first; i < steps.length; i++) {
+      try {
+        executed = steps[i].apply(current);
+      } catch (RuntimeException ex) {
+        return CompletableFuture.failedFuture(ex);
+      }
+
+      if (!executed.isDone()) {
+        var next = i + 1;
+        return executed.thenCompose(outcome -> resume(outcome, next));
+      }
+      if (executed.isCompletedExceptionally()) return executed;
+
+      if (!(executed.join() instanceof Outcome.Continue<A> c)) return executed;
+      current = c.records();
+    }
+
+    return executed != null ? executed : CompletableFuture.completedFuture(Outcome.next(current));
+  }
+
+  private CompletableFuture<Outcome<A>> resume(Outcome<A> outcome, int next) {
+    return switch (outcome) {
+      case Outcome.Continue<A> c -> run(c.records(), next);
+      default -> CompletableFuture.completedFuture(outcome);
+    };
   }
 }
 
@@ -81,17 +169,35 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
   private final Provider<A> provider;
   private final Supplier<CompletableFuture<Stream<A>>> trigger;
   private final Step firstStep;
-  private final List<PipelineStep<A, Step>> builder;
-
-  private Articioc(
-      Provider<A> provider,
-      Supplier<CompletableFuture<Stream<A>>> trigger,
-      Step firstStep,
-      List<PipelineStep<A, Step>> builder) {
-    this.provider = provider;
-    this.trigger = trigger;
-    this.firstStep = firstStep;
-    this.builder = builder;
+  private final PipelineRoutes<A> routes;
+  private final BitSet readonlySteps;
+  private final ExecutionMode executionMode;
+  private final AsyncLimiter limiter;
+  private final KeyedLanes lanes;
+  private final ExecutionContext executionContext;
+  private final PipelineMetrics metrics;
+
+  private Articioc(Builder<A, M> builder, List<PipelineStep<A, Step>> checkpoints) {
+    this.provider = builder.provider;
+    this.trigger = builder.trigger;
+    this.firstStep = builder.firstStep;
+    this.routes = PipelineRoutes.compile(checkpoints);
+    this.readonlySteps = (BitSet) builder.readonlySteps.clone();
+    this.executionMode = builder.executionMode;
+
+    this.limiter =
+        Optional.ofNullable(builder.maxInFlight).map(AsyncLimiter::new).orElse(null);
+    this.metrics = builder.metrics;
+
+    /* Lanes only run in parallel when records are dispatched off the thread that submits them. */
+    if (executionMode == ExecutionMode.KEY_ORDERED) {
+      this.lanes = new KeyedLanes(builder.lanes);
+      this.executionContext = Optional.ofNullable(builder.executionContext)
+          .orElseGet(ExecutionContext::commonPool);
+    } else {
+      this.lanes = null;
+      this.executionContext = builder.executionContext;
+    }
 
     if (provider instanceof ProviderAsExecutor<A> asExecutor) {
       asExecutor.setPipeline(this::applyPipelineToMessage);
@@ -100,7 +206,24 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
 
   @Override
   public CompletableFuture<Stream<A>> readThenExecute() {
-    return provider.read().thenCompose(e -> this.applyPipelineToMessage(e, provider));
+    return read().thenCompose(this::execute);
+  }
+
+  /** Returns a builder of a {@link ContinuousRunner} that keeps reading and executing records. */
+  public ContinuousRunner.Builder<A, M> runner() {
+    return new ContinuousRunner.Builder<>(this);
+  }
+
+  CompletableFuture<Stream<LeafCarrier<A>>> read() {
+    try {
+      return provider.read();
+    } catch (Exception ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  CompletableFuture<Stream<A>> execute(Stream<LeafCarrier<A>> records) {
+    return applyPipelineToMessage(records, provider);
   }
 
   @Override
@@ -123,36 +246,44 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
 
   @Override
   public Pipeline<A> pipeline(Provider<A> customProvider) {
-    Function<Stream<A>, CompletableFuture<Stream<A>>> skipIfThereAreNoRecords = records -> {
-      if (records.isEmpty())
-        return CompletableFuture.failedFuture(
-            new SkipPipelineSinceThereAreNoRecordsToProcess(Stream.empty()));
+    return input -> input.thenCompose(records -> {
+      var result = new CompletableFuture<Stream<A>>();
+      this.executeUntilFinal(LeafBatch.ofAll(records), customProvider, result);
 
-      return CompletableFuture.completedFuture(records);
-    };
-
-    Function<Stream<A>, CompletableFuture<Stream<A>>> skipIfAllRecordsAreFinal = records -> {
-      if (records.forAll(e -> e.getStep().isFinal()))
-        return CompletableFuture.failedFuture(
-            new SkipPipelineSinceThereAreNoRecordsToProcess(records));
-
-      return CompletableFuture.completedFuture(records);
-    };
+      return result;
+    });
+  }
 
-    Function<Throwable, CompletableFuture<Stream<A>>> recoverFromSkip =
-        ex -> switch (ex.getCause()) {
-          case SkipPipelineSinceThereAreNoRecordsToProcess skip ->
-            CompletableFuture.completedFuture((Stream<A>) skip.getRecords());
-          default -> CompletableFuture.failedFuture(ex);
-        };
+  /* Runs a checkpoint per lap until there are no records left or all of them are final.
+   * Laps that complete synchronously continue in the same loop, the others resume it once
+   * completed, so the stack doesn't grow with the number of checkpoints. */
+  private void executeUntilFinal(
+      LeafBatch<A> records, Provider<A> customProvider, CompletableFuture<Stream<A>> result) {
+    var current = records;
+
+    while (!current.isEmpty() && !current.allMatch(e -> e.getStep().isFinal())) {
+      /* Only the exact class: a subclass may persist its writes. */
+      var lap = customProvider.getClass() == EmptyProvider.class
+          ? this.executeLapWithoutProvider(current)
+          : this.executeLap(current.map(LeafCarrier::from), customProvider);
+
+      if (!lap.isDone()) {
+        lap.whenComplete((next, ex) -> {
+          if (ex != null) result.completeExceptionally(ex);
+          else this.executeUntilFinal(next, customProvider, result);
+        });
+        return;
+      }
+
+      try {
+        current = lap.join();
+      } catch (CompletionException ex) {
+        result.completeExceptionally(ex.getCause());
+        return;
+      }
+    }
 
-    return input -> input
-        .thenCompose(skipIfThereAreNoRecords)
-        .thenCompose(skipIfAllRecordsAreFinal)
-        .thenApply(e -> e.map(LeafCarrier::from))
-        .thenCompose(e -> this.applyPipelineToMessage(e, customProvider))
-        .thenCompose(e -> pipeline(customProvider).apply(CompletableFuture.completedFuture(e)))
-        .exceptionallyCompose(recoverFromSkip);
+    result.complete(current.toStream());
   }
 
   private CompletableFuture<Stream<A>> applyPipelineToMessage(Stream<LeafCarrier<A>> messages) {
@@ -161,109 +292,412 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
 
   private CompletableFuture<Stream<A>> applyPipelineToMessage(
       Stream<LeafCarrier<A>> messages, Provider<A> provider) {
-    Function<LeafCarrier<A>, Stream<PipelineWithMessage<A>>> linkPipelineToEachMessage = input -> {
-      Function<Step, Optional<PipelineStep<A, Step>>> find =
-          b -> builder.find(r -> r.getFrom().equals(b)).toJavaOptional();
-
-      var step = Optional.ofNullable(input).map(LeafCarrier::getData).map(Leaf::getStep);
-
-      return step.flatMap(find)
-          .map(e ->
-              PipelineWithMessage.from(input, e.getPipeline(), e.getErrorPipeline(), e.getTo()))
-          .map(Stream::of)
-          .orElseGet(() -> {
-            logger.warn(
-                "Pipeline not found for message with step: {}. It will be discarded.", step);
-            return Stream.of();
+    return this.executeLap(LeafBatch.ofAll(messages), provider).thenApply(LeafBatch::toStream);
+  }
+
+  private CompletableFuture<LeafBatch<A>> executeLap(
+      LeafBatch<LeafCarrier<A>> messages, Provider<A> provider) {
+    var linked = linkPipelineToEach(messages, LeafCarrier::getData);
+
+    var execution =
+        switch (executionMode) {
+          case PER_RECORD -> LeafBatch.whenAll(linked
+              .map(e -> new PipelineWithMessages<>(LeafBatch.of(e._2), e._1))
+              .map(p -> this.executePipeline(p, provider)));
+          case BATCH -> this.executeBatch(
+              groupByPipeline(linked).map(e -> new PipelineWithMessages<>(e._2, e._1)), provider);
+          case KEY_ORDERED -> LeafBatch.whenAll(linked.map(e -> lanes.submit(
+              e._2.getData().key(),
+              () -> this.executePipeline(
+                  new PipelineWithMessages<>(LeafBatch.of(e._2), e._1), provider))));
+        };
+
+    return execution.exceptionallyCompose(this::logAndDiscard);
+  }
+
+  /**
+   * Runs the checkpoints of the records without any of the provider's bookkeeping: {@link
+   * EmptyProvider} doesn't persist anything and its records have no commit or rollback operations,
+   * so the output of each checkpoint is passed as it is to the next one.
+   */
+  private CompletableFuture<LeafBatch<A>> executeLapWithoutProvider(LeafBatch<A> records) {
+    var linked = linkPipelineToEach(records, Function.identity());
+
+    var execution =
+        switch (executionMode) {
+          case PER_RECORD -> LeafBatch.whenAll(
+              linked.map(e -> runWithinInFlightLimits(e._1, LeafBatch.of(e._2))));
+          case BATCH -> LeafBatch.whenAll(LeafBatch.ofAll(groupByPipeline(linked)
+              .map(e -> runWithinInFlightLimits(e._1, e._2))));
+          case KEY_ORDERED -> LeafBatch.whenAll(linked.map(e -> lanes.submit(
+              e._2.key(), () -> runWithinInFlightLimits(e._1, LeafBatch.of(e._2)))));
+        };
+
+    return execution.exceptionallyCompose(this::logAndDiscard);
+  }
+
+  private <T> LeafBatch<Tuple2<PipelineStep<A, Step>, T>> linkPipelineToEach(
+      LeafBatch<T> input, Function<T, A> toRecord) {
+    var linked = new LeafBatch.Builder<Tuple2<PipelineStep<A, Step>, T>>(input.size());
+
+    for (var e : input) {
+      var record = e == null ? null : toRecord.apply(e);
+      var step = record == null ? null : record.getStep();
+      var pipeline = routes.route(step);
+
+      if (pipeline.isPresent()) {
+        linked.add(Tuple.of(pipeline.get(), e));
+      } else {
+        logger.warn(
+            "Pipeline not found for message with step: {}. It will be discarded.",
+            Optional.ofNullable(step));
+      }
+    }
+
+    return linked.build();
+  }
+
+  private CompletableFuture<LeafBatch<A>> logAndDiscard(Throwable ex) {
+    logger.atError().log("Pipeline was executed and encountered and error.", ex);
+
+    return CompletableFuture.completedFuture(LeafBatch.empty());
+  }
+
+  /**
+   * Returns the snapshot of the limiter set by {@link Builder#maxInFlight(int)}, including how long
+   * records waited for a slot.
+   */
+  public Optional<AsyncLimiter.Stats> inFlightStats() {
+    return Optional.ofNullable(limiter).map(AsyncLimiter::stats);
+  }
+
+  /**
+   * Returns the snapshot of the limiter set by {@link Builder#maxInFlightOnCheckpoint(int)} on the
+   * pipeline that processes records at the given step.
+   */
+  public Optional<AsyncLimiter.Stats> inFlightStats(Step step) {
+    return routes.route(step).flatMap(PipelineStep::getLimiter).map(AsyncLimiter::stats);
+  }
+
+  private CompletableFuture<LeafBatch<A>> executePipeline(
+      PipelineWithMessages<A> p, Provider<A> provider) {
+    if (isUnlimited(p.step())) return writeAndCommit(p, runPipeline(p), provider);
+
+    return withinInFlightLimits(p.step(), () -> writeAndCommit(p, runPipeline(p), provider));
+  }
+
+  /* Stages that already completed are followed by a direct call, only the pending ones get a
+   * continuation. A failure at any stage rolls the messages back. */
+  private CompletableFuture<LeafBatch<A>> writeAndCommit(
+      PipelineWithMessages<A> p, CompletableFuture<LeafBatch<A>> executed, Provider<A> provider) {
+    var result = executed;
+
+    try {
+      result = isCompletedNormally(result)
+          ? write(p, result.join(), provider)
+          : result.thenCompose(output -> write(p, output, provider));
+      result = isCompletedNormally(result)
+          ? commit(p, result.join())
+          : result.thenCompose(output -> commit(p, output));
+    } catch (RuntimeException ex) {
+      result = CompletableFuture.failedFuture(new CompletionException(ex));
+    }
+
+    if (isCompletedNormally(result)) return result;
+    return result.exceptionallyCompose(cause -> this.rollback(p, cause));
+  }
+
+  private CompletableFuture<LeafBatch<A>> write(
+      PipelineWithMessages<A> p, LeafBatch<A> output, Provider<A> provider) {
+    if (metrics == null) return writeOnProvider(output, provider);
+
+    return measured(
+        Operation.WRITE,
+        List.of(Tuple.of(p.step().getFrom(), output.size())),
+        () -> this.writeOnProvider(output, provider));
+  }
+
+  private static boolean isCompletedNormally(CompletableFuture<?> future) {
+    return future.isDone() && !future.isCompletedExceptionally();
+  }
+
+  /* Without limits nor execution context the checkpoint runs right away, on the calling thread. */
+  private boolean isUnlimited(PipelineStep<A, Step> step) {
+    return executionContext == null && limiter == null && step.getLimiter().isEmpty();
+  }
+
+  private CompletableFuture<LeafBatch<A>> runWithinInFlightLimits(
+      PipelineStep<A, Step> step, LeafBatch<A> batch) {
+    if (isUnlimited(step)) return runPipeline(step, batch);
+
+    return withinInFlightLimits(step, () -> runPipeline(step, batch));
+  }
+
+  /* The checkpoint's slot is taken before the global one: a record waiting for its checkpoint
+   * must not hold a global slot that records of other checkpoints could use.
+   * Once both are taken the execution is dispatched on the execution context, if any. */
+  private <T> CompletableFuture<T> withinInFlightLimits(
+      PipelineStep<A, Step> step, Supplier<CompletableFuture<T>> execution) {
+    Supplier<CompletableFuture<T>> dispatched = executionContext == null
+        ? execution
+        : () -> executionContext.composeAsync(execution);
+
+    Supplier<CompletableFuture<T>> withinGlobalLimit =
+        limiter == null ? dispatched : () -> limiter.submit(dispatched);
+
+    return step.getLimiter().map(l -> l.submit(withinGlobalLimit)).orElseGet(withinGlobalLimit);
+  }
+
+  /**
+   * Executes each group of records through its checkpoint once, then writes everything the groups
+   * produced with a single call to the provider. Each group is committed, or rolled back, on its own:
+   * records of providers committing on their own output get the output with their key.
+   */
+  private CompletableFuture<LeafBatch<A>> executeBatch(
+      List<PipelineWithMessages<A>> groups, Provider<A> provider) {
+    Function<PipelineWithMessages<A>, CompletableFuture<Executed<A>>> execute =
+        p -> withinInFlightLimits(p.step(), () -> runPipeline(p))
+            .handle((output, cause) -> new Executed<>(p, output, cause));
+
+    return collect(groups.map(execute)).thenCompose(results -> {
+      var succeeded = results.filter(Executed::isSuccess).toList();
+      var failed = results.reject(Executed::isSuccess).toList();
+
+      var rollbacks = failed.map(r -> this.rollback(r.pipeline(), r.cause()));
+
+      Function<Throwable, CompletableFuture<LeafBatch<A>>> rollbackAllSucceeded = cause -> settle(
+              succeeded.map(r -> this.rollback(r.pipeline(), cause)))
+          .thenCompose(ignore -> CompletableFuture.failedFuture(cause));
+
+      var byKey = provider.commitsOnOwnOutput();
+      Function<LeafBatch<A>, CompletableFuture<LeafBatch<A>>> commitEachGroup = written -> settle(
+              succeeded.map(r -> this.commit(r.pipeline(), r.output(), byKey)
+                  .exceptionallyCompose(cause -> this.rollback(r.pipeline(), cause))))
+          .thenApply(ignore -> written);
+
+      /* The other groups are already written and committed, their records are still returned. */
+      Function<LeafBatch<A>, CompletableFuture<LeafBatch<A>>> logFailedGroups =
+          written -> settle(rollbacks).thenApply(ignore -> {
+            failed.forEach(r -> logger.atError().log(
+                "Group at step {} failed and was rolled back.",
+                r.pipeline().step().getFrom(),
+                r.cause()));
+            return written;
           });
+
+      var written = succeeded.map(r -> Tuple.of(r.pipeline().step().getFrom(), r.output().size()));
+
+      return measured(
+              Operation.WRITE,
+              written,
+              () -> this.writeOnProvider(
+                  LeafBatch.flatten(succeeded.map(Executed::output)), provider))
+          .exceptionallyCompose(rollbackAllSucceeded)
+          .thenCompose(commitEachGroup)
+          .thenCompose(logFailedGroups);
+    });
+  }
+
+  private <T> List<Tuple2<PipelineStep<A, Step>, LeafBatch<T>>> groupByPipeline(
+      LeafBatch<Tuple2<PipelineStep<A, Step>, T>> linked) {
+    return List.ofAll(linked.groupBy(Tuple2::_1).entrySet())
+        .map(e -> Tuple.of(e.getKey(), e.getValue().map(Tuple2::_2)));
+  }
+
+  private CompletableFuture<LeafBatch<A>> runPipeline(PipelineWithMessages<A> p) {
+    return runPipeline(p.step(), p.records());
+  }
+
+  private CompletableFuture<LeafBatch<A>> runPipeline(
+      PipelineStep<A, Step> step, LeafBatch<A> batch) {
+    var records = batch.toStream();
+    if (metrics == null) return recordsOf(step, batch, records, step.run(records));
+
+    var checkpoint = step.getFrom();
+    return measured(Operation.CHECKPOINT, List.of(Tuple.of(checkpoint, batch.size())), () -> {
+      var executed = step.run(records).thenApply(outcome -> {
+        if (!(outcome instanceof Outcome.Continue<A>)) {
+          metrics.event(Event.SKIPPED, checkpoint, batch.size());
+        }
+        return outcome;
+      });
+
+      return recordsOf(step, batch, records, executed);
+    });
+  }
+
+  /* Outcomes already available are converted straight away, the recovery is only attached to
+   * failed or pending ones. */
+  private CompletableFuture<LeafBatch<A>> recordsOf(
+      PipelineStep<A, Step> step,
+      LeafBatch<A> batch,
+      Stream<A> records,
+      CompletableFuture<Outcome<A>> executed) {
+    if (isCompletedNormally(executed)) {
+      return CompletableFuture.completedFuture(recordsOf(executed.join()));
+    }
+
+    return executed
+        .exceptionallyCompose(ex -> this.recover(step, batch, records, ex))
+        .thenApply(this::recordsOf);
+  }
+
+  private CompletableFuture<Outcome<A>> recover(
+      PipelineStep<A, Step> step, LeafBatch<A> batch, Stream<A> records, Throwable ex) {
+    var checkpoint = step.getFrom();
+    var innerException =
+        switch (ex) {
+          case CompletionException ce -> ce.getCause();
+          default -> ex;
+        };
+
+    /* Steps that can't return an Outcome skip by throwing. */
+    if (innerException instanceof SkipNextSteps skip) {
+      if (metrics != null) metrics.event(Event.SKIPPED, checkpoint, batch.size());
+      return CompletableFuture.completedFuture(Outcome.skip((Stream<A>) skip.getRecords()));
+    }
+
+    if (step.getErrorPipeline() == null) return CompletableFuture.failedFuture(ex);
+
+    Exception cause =
+        switch (innerException) {
+          case Exception e -> e;
+          default -> new RuntimeException(innerException);
+        };
+
+    var recovered = step.getErrorPipeline()
+        .apply(cause, records, step.getTo())
+        .exceptionallyCompose(Articioc::skippedByErrorHandler);
+    if (metrics == null) return recovered;
+
+    metrics.event(Event.FAILED, checkpoint, batch.size());
+    return recovered.whenComplete((ignore, handlerEx) -> {
+      if (handlerEx == null) metrics.event(Event.RECOVERED, checkpoint, batch.size());
+    });
+  }
+
+  /* Error handlers may throw SkipNextSteps as well. */
+  private static <A> CompletableFuture<Outcome<A>> skippedByErrorHandler(Throwable ex) {
+    return switch (ex) {
+      case CompletionException ce
+      when ce.getCause() instanceof SkipNextSteps skip ->
+        CompletableFuture.completedFuture(Outcome.skip((Stream<A>) skip.getRecords()));
+      default -> CompletableFuture.failedFuture(ex);
     };
+  }
 
-    Function<PipelineWithMessage<A>, CompletableFuture<Stream<A>>> executePipeline = p -> {
-      final Function<Stream<A>, CompletableFuture<Stream<A>>> writeOnProvider = input -> {
-        Map<Boolean, java.util.List<A>> groupedByFinal =
-            input.collect(Collectors.groupingBy(e -> e.getStep().isFinal()));
-        var finalRecords = Optional.of(groupedByFinal)
-            .map(e -> e.get(true))
-            .map(Stream::ofAll)
-            .orElseGet(Stream::empty);
-        var intermediateRecords = Optional.of(groupedByFinal)
-            .map(e -> e.get(false))
-            .map(Stream::ofAll)
-            .orElseGet(Stream::of);
-
-        var groupedByReadonly = Optional.of(intermediateRecords)
-            .map(r -> r.collect(Collectors.groupingBy(e -> e.getStep().isReadonly())));
-
-        var readonlyRecords =
-            groupedByReadonly.map(e -> e.get(true)).map(Stream::ofAll).orElseGet(Stream::of);
-
-        var toBeWrittenRecords =
-            groupedByReadonly.map(e -> e.get(false)).map(Stream::ofAll).orElseGet(Stream::of);
-
-        var written = provider.write(toBeWrittenRecords);
-
-        return written
-            .thenApply(s -> Stream.concat(s, finalRecords))
-            .thenApply(s -> Stream.concat(s, readonlyRecords));
-      };
+  private LeafBatch<A> recordsOf(Outcome<A> outcome) {
+    return switch (outcome) {
+      case Outcome.Redirect<A> redirect -> LeafBatch.ofAll(redirect.records())
+          .map(e -> (A) e.setStep(redirect.step()));
+      default -> LeafBatch.ofAll(outcome.records());
+    };
+  }
 
-      final Function<Stream<A>, CompletableFuture<Stream<A>>> commit = recordsInOutput -> p.commit()
-          .map(commitOperation ->
-              commitOperation.commit(new CommitOperationOptions<>(recordsInOutput, p.to())))
-          .map(ok -> ok.thenApply(ignore -> recordsInOutput))
-          .orElseGet(() -> CompletableFuture.completedFuture(recordsInOutput));
-
-      final Function<Throwable, CompletableFuture<Stream<A>>> rollback = cause -> p.rollback()
-          .map(rollbackOperation ->
-              rollbackOperation.rollback(new RollbackOperationOptions<>(cause, p.to())))
-          .map(ok -> ok.thenCompose(ignore -> CompletableFuture.<Stream<A>>failedFuture(cause)))
-          .orElseGet(() -> CompletableFuture.failedFuture(cause));
-
-      final Function<Throwable, CompletableFuture<Stream<A>>> recoverFromError = ex -> {
-        if (p.errorPipeline() == null) return CompletableFuture.failedFuture(ex);
-
-        var innerException =
-            switch (ex) {
-              case CompletionException ce -> ce.getCause();
-              default -> ex;
-            };
-
-        Exception cause =
-            switch (innerException) {
-              case Exception e -> e;
-              default -> new RuntimeException(innerException);
-            };
-
-        return p.errorPipeline().apply(cause, Stream.of(p.record()), p.to());
-      };
+  /* Reports the operation to the metrics, once for each checkpoint whose records take part in it. */
+  private <T> CompletableFuture<T> measured(
+      Operation operation,
+      List<Tuple2<Step, Integer>> checkpoints,
+      Supplier<CompletableFuture<T>> execution) {
+    if (metrics == null) return execution.get();
+
+    checkpoints.forEach(c -> metrics.started(operation, c._1, c._2));
+    var startedAt = System.nanoTime();
+
+    CompletableFuture<T> result;
+    try {
+      result = execution.get();
+    } catch (RuntimeException ex) {
+      result = CompletableFuture.failedFuture(ex);
+    }
+
+    return result.whenComplete((ignore, ex) -> {
+      var duration = System.nanoTime() - startedAt;
+      checkpoints.forEach(c -> metrics.completed(operation, c._1, c._2, duration, ex));
+    });
+  }
 
-      final Function<Throwable, CompletableFuture<Stream<A>>> recoverFromSkipSteps =
-          ex -> switch (ex) {
-            case CompletionException ce
-            when ce.getCause() instanceof SkipNextSteps skip ->
-              CompletableFuture.completedFuture((Stream<A>) skip.getRecords());
-            default -> CompletableFuture.failedFuture(ex);
-          };
-
-      var input = CompletableFuture.completedFuture(Stream.of(p.record()));
-      return p.pipeline()
-          .apply(input)
-          .exceptionallyCompose(recoverFromError)
-          .exceptionallyCompose(recoverFromSkipSteps)
-          .thenCompose(writeOnProvider)
-          .thenCompose(commit)
-          .exceptionallyCompose(rollback);
+  private CompletableFuture<LeafBatch<A>> writeOnProvider(
+      LeafBatch<A> input, Provider<A> provider) {
+    var byFinal = input.partition(e -> e.getStep().isFinal());
+    var byReadonly = byFinal.rest().partition(e -> isReadonly(e.getStep()));
+
+    return provider.write(byReadonly.rest().toStream())
+        .thenApply(written -> LeafBatch.concat(
+            LeafBatch.ofAll(written), byFinal.matching(), byReadonly.matching()));
+  }
+
+  /* Steps flagged with the deprecated Step#setReadonly stay readonly for every pipeline. */
+  @SuppressWarnings("deprecation")
+  private boolean isReadonly(Step step) {
+    var id = step.id();
+    return (id >= 0 && readonlySteps.get(id)) || step.isReadonly();
+  }
+
+  private CompletableFuture<LeafBatch<A>> commit(
+      PipelineWithMessages<A> p, LeafBatch<A> recordsInOutput) {
+    return commit(p, recordsInOutput, false);
+  }
+
+  /**
+   * @param byKey whether each message is committed only with the records of the output sharing its
+   *     {@link Leaf#key()}, instead of the whole output.
+   */
+  private CompletableFuture<LeafBatch<A>> commit(
+      PipelineWithMessages<A> p, LeafBatch<A> recordsInOutput, boolean byKey) {
+    if (p.messages().allMatch(m -> m.getCommitOperation().isEmpty())) {
+      return CompletableFuture.completedFuture(recordsInOutput);
+    }
+
+    var output = recordsInOutput.toStream();
+    var options = new CommitOperationOptions<>(output, p.to());
+    var outputByKey = byKey ? output.groupBy(Leaf::key) : null;
+
+    Function<A, CommitOperationOptions<A>> optionsOf = !byKey
+        ? ignore -> options
+        : record -> new CommitOperationOptions<>(
+            outputByKey.get(record.key()).getOrElse(Stream.empty()), p.to());
+
+    /* Operations are started by the measured execution, so synchronous work is measured too. */
+    Supplier<CompletableFuture<Void>> commitAll = () -> {
+      var commits = new ArrayList<CompletableFuture<A>>();
+      for (var message : p.messages()) {
+        message.getCommitOperation()
+            .ifPresent(c -> commits.add(c.commit(optionsOf.apply(message.getData()))));
+      }
+
+      return CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new));
     };
 
-    Stream<PipelineWithMessage<A>> pipelines = messages.flatMap(linkPipelineToEachMessage);
+    return measured(
+            Operation.COMMIT,
+            List.of(Tuple.of(p.step().getFrom(), p.messages().size())),
+            commitAll)
+        .thenApply(ignore -> recordsInOutput);
+  }
 
-    var futures = pipelines.map(executePipeline);
+  private CompletableFuture<LeafBatch<A>> rollback(PipelineWithMessages<A> p, Throwable cause) {
+    var options = new RollbackOperationOptions<A>(cause, p.to());
 
-    return whenAll(futures).exceptionallyCompose(ex -> {
-      logger.atError().log("Pipeline was executed and encountered and error.", ex);
+    Supplier<CompletableFuture<Void>> rollbackAll = () -> {
+      var rollbacks = new ArrayList<CompletableFuture<A>>();
+      for (var message : p.messages()) {
+        message.getRollbackOperation().ifPresent(r -> rollbacks.add(r.rollback(options)));
+      }
 
-      return CompletableFuture.completedFuture(Stream.of());
-    });
+      return CompletableFuture.allOf(rollbacks.toArray(CompletableFuture[]::new));
+    };
+
+    return measured(
+            Operation.ROLLBACK,
+            List.of(Tuple.of(p.step().getFrom(), p.messages().size())),
+            rollbackAll)
+        .thenCompose(ignore -> CompletableFuture.failedFuture(cause));
+  }
+
+  private static <T> CompletableFuture<Void> settle(List<CompletableFuture<T>> futures) {
+    return CompletableFuture.allOf(futures.toJavaArray(CompletableFuture[]::new))
+        .handle((ignore, ex) -> null);
   }
 
   public static class Builder<A extends Leaf<M>, M>
@@ -278,8 +712,16 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
 
     private List<PipelineStep<A, Step>> builder;
     private Step step;
-    private Pipeline<A> currentStep;
+    private List<CheckpointPipeline<A>> currentSteps;
     private ErrorPipeline<A> currentErrorPipeline;
+    private ExecutionMode executionMode;
+    private Integer maxInFlight;
+    private Integer currentMaxInFlight;
+    private ExecutionContext executionContext;
+    private PipelineMetrics metrics;
+    private int lanes;
+    private StreamingSteps<A> currentStreaming;
+    private final BitSet readonlySteps = new BitSet();
 
     public Builder(
         Provider<A> provider, Supplier<CompletableFuture<Stream<A>>> trigger, Step firstStep) {
@@ -290,8 +732,10 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
       this.step = firstStep;
 
       this.builder = List.empty();
-      this.currentStep = Pipeline.identity();
+      this.currentSteps = List.empty();
       this.currentErrorPipeline = ErrorPipeline.identity();
+      this.executionMode = ExecutionMode.PER_RECORD;
+      this.lanes = Runtime.getRuntime().availableProcessors();
     }
 
     public Builder(Provider<A> provider, TriggerOfMany<A> trigger, Step firstStep) {
@@ -306,49 +750,180 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
     public Builder<A, M> trigger(FutureTriggerOfOne<A> trigger) { this.trigger = () -> trigger.get().thenApply(Stream::of); return this; }
     public Builder<A, M> trigger(TriggerOfMany<A> trigger) { this.trigger = () -> CompletableFuture.completedFuture(trigger.get()); return this; }
 
+    /**
+     * Defines how records read from the provider are executed, see {@link ExecutionMode}. Defaults
+     * to {@link ExecutionMode#PER_RECORD}.
+     */
+    public Builder<A, M> executionMode(ExecutionMode executionMode) {
+      this.executionMode = Objects.requireNonNull(executionMode);
+      return this;
+    }
+
+    /**
+     * Number of serial lanes records are spread on in {@link ExecutionMode#KEY_ORDERED}. Defaults
+     * to the number of available processors.
+     */
+    public Builder<A, M> lanes(int lanes) {
+      if (lanes <= 0) throw new IllegalArgumentException("Lanes must be greater than 0.");
+
+      this.lanes = lanes;
+      return this;
+    }
+
+    /**
+     * Defines where each record, or group of records in {@link ExecutionMode#BATCH}, is executed.
+     * When not set, records are executed by the thread that completes the read.
+     */
+    public Builder<A, M> executionContext(ExecutionContext executionContext) {
+      this.executionContext = Objects.requireNonNull(executionContext);
+      return this;
+    }
+
+    /**
+     * Notifies the metrics around each checkpoint execution, provider write, commit and rollback,
+     * see {@link PipelineMetrics}.
+     */
+    public Builder<A, M> metrics(PipelineMetrics metrics) {
+      this.metrics = Objects.requireNonNull(metrics);
+      return this;
+    }
+
+    @Override
+    public ExecutionContext getExecutionContext() {
+      return Optional.ofNullable(executionContext).orElseGet(ExecutionContext::inline);
+    }
+
+    /**
+     * Limits how many records, or groups of records in {@link ExecutionMode#BATCH}, the whole
+     * pipeline executes at the same time. Records over the limit are queued and started as soon as
+     * earlier ones complete.
+     */
+    public Builder<A, M> maxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * Same as {@link #maxInFlight(int)} but applied only to the steps added since the last
+     * checkpoint. Both limits are enforced when set.
+     */
+    public Builder<A, M> maxInFlightOnCheckpoint(int maxInFlight) {
+      this.currentMaxInFlight = maxInFlight;
+      return this;
+    }
+
     public Builder<A, M> checkpoint(Step next) {
       return this.checkpoint(next, new StepOptions<>());
     }
 
+    /**
+     * Runs the one-to-* steps added from now until the next checkpoint as a stream: each record
+     * flows through them as soon as it's produced, with at most {@code bufferSize} records waiting
+     * between two steps. Many-to-many steps still receive every record. Steps run on virtual
+     * threads.
+     */
+    public Builder<A, M> streaming(int bufferSize) {
+      return this.streaming(bufferSize, ExecutionContext.virtualThreads());
+    }
+
+    /**
+     * Same as {@link #streaming(int)} on the given execution context. A step blocks while the next
+     * one has {@code bufferSize} records waiting, so the context must tolerate blocking.
+     */
+    public Builder<A, M> streaming(int bufferSize, ExecutionContext executionContext) {
+      return this.streaming(bufferSize, 1, true, executionContext);
+    }
+
+    /**
+     * Same as {@link #streaming(int, ExecutionContext)}, with each step running on up to {@code
+     * concurrency} records at once. When {@code preserveOrder} is {@code false} what a record
+     * produced is handed to the next step as soon as it's ready, otherwise in the order records
+     * arrived.
+     */
+    public Builder<A, M> streaming(
+        int bufferSize,
+        int concurrency,
+        boolean preserveOrder,
+        ExecutionContext executionContext) {
+      this.flushStreaming();
+      this.currentStreaming = new StreamingSteps<>(
+          bufferSize, concurrency, preserveOrder, Objects.requireNonNull(executionContext));
+      return this;
+    }
+
+    /* Appends the streaming steps collected so far as a single step of the checkpoint. */
+    private void flushStreaming() {
+      if (currentStreaming == null || currentStreaming.isEmpty()) return;
+
+      var streaming = currentStreaming;
+      CheckpointPipeline<A> streamed =
+          records -> streaming.apply(records).thenApply(Outcome::next);
+
+      this.currentSteps = this.currentSteps.append(streamed);
+      this.currentStreaming = streaming.empty();
+    }
+
     public Builder<A, M> checkpoint(Step next, StepOptions<A, M> options) {
+      this.flushStreaming();
+      this.currentStreaming = null;
+
       var isReadonly =
           options.getCheckpoint().map(StepOptions.CheckpointOptions::readonly).orElse(false);
 
-      next.setReadonly(isReadonly);
+      /* Kept by the pipeline, by step id: steps are shared and immutable. */
+      if (isReadonly) readonlySteps.set(StepRegistry.idOf(next.getName()));
 
-      this.builder =
-          builder.append(new PipelineStep<>(this.step, next, currentStep, currentErrorPipeline));
+      this.builder = builder.append(new PipelineStep<>(
+          this.step, next, currentSteps, currentErrorPipeline, currentMaxInFlight));
 
       this.step = next;
-      this.currentStep = Pipeline.identity();
+      this.currentSteps = List.empty();
       this.currentErrorPipeline = ErrorPipeline.identity();
+      this.currentMaxInFlight = null;
 
       return this;
     }
 
+    /**
+     * Compiles each checkpoint declared so far, the last one leading to {@link Step#FINAL}, in a
+     * flat array of steps that ends by moving the records to the next checkpoint.
+     */
     public Articioc<A, M> end() {
-      BiFunction<Step, CompletableFuture<Stream<A>>, CompletableFuture<Stream<A>>> setStep =
-          (step, input) -> input.thenApply(r -> r.map(e -> (A) e.setStep(step)));
+      this.flushStreaming();
+      this.currentStreaming = null;
 
-      Function<PipelineStep<A, Step>, PipelineStep<A, Step>> setStepOnEachPipeline =
-          input -> input.andThen(e -> setStep.apply(input.getTo(), e));
+      Function<Step, CheckpointPipeline<A>> setStep = step -> records ->
+          CompletableFuture.completedFuture(Outcome.next(records.map(e -> (A) e.setStep(step))));
 
-      this.builder = builder.map(setStepOnEachPipeline);
+      var lastStep = new PipelineStep<>(
+          this.step, Step.FINAL, currentSteps, currentErrorPipeline, currentMaxInFlight);
 
-      var lastStep = new PipelineStep<>(this.step, Step.FINAL, currentStep, currentErrorPipeline)
-          .andThen(e -> setStep.apply(Step.FINAL, e));
+      var compiled = builder.append(lastStep).map(p -> p.andThen(setStep.apply(p.getTo())));
 
-      this.builder = builder.append(lastStep);
+      return new Articioc<>(this, compiled);
+    }
+
+    @Override
+    public Consumer<Event> checkpointEvents() {
+      var checkpoint = this.step;
 
-      return new Articioc<>(this.provider, this.trigger, this.firstStep, this.builder);
+      /* Metrics may be set once the steps are added. */
+      return event -> {
+        if (metrics != null) metrics.event(event, checkpoint, 1);
+      };
     }
 
     @Override
     public Builder<A, M> addStepOnSingleElement(Function<A, CompletableFuture<Stream<A>>> step) {
+      if (currentStreaming != null) {
+        this.currentStreaming = currentStreaming.with(step);
+        return this;
+      }
+
       Function<Stream<A>, CompletableFuture<Stream<A>>> applyStepToEachPreviousResult = input -> {
-        var futures = input.map(step);
+        var futures = LeafBatch.ofAll(input).map(e -> step.apply(e).thenApply(LeafBatch::ofAll));
 
-        return whenAll(futures);
+        return LeafBatch.whenAll(futures).thenApply(LeafBatch::toStream);
       };
 
       return this.addStepImplementation(applyStepToEachPreviousResult);
@@ -357,7 +932,15 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
     @Override
     public Builder<A, M> addStepImplementation(
         Function<Stream<A>, CompletableFuture<Stream<A>>> step) {
-      this.currentStep = this.currentStep.andThen(previous -> previous.thenCompose(step));
+      return this.addOutcomeStepImplementation(
+          records -> step.apply(records).thenApply(Outcome::next));
+    }
+
+    @Override
+    public Builder<A, M> addOutcomeStepImplementation(
+        Function<Stream<A>, CompletableFuture<Outcome<A>>> step) {
+      this.flushStreaming();
+      this.currentSteps = this.currentSteps.append(step::apply);
       return this;
     }
 
@@ -386,35 +969,28 @@ public class Articioc<A extends Leaf<M>, M> implements ToPipeline<A, M>, Autonom
                 ? CompletableFuture.completedFuture(i)
                 : exceptionHandler.apply(original, i);
 
-            return handled.thenCompose(r -> {
-              var target = goToStep == null ? step : goToStep;
-
-              Stream<A> records = r.map(e -> (A) e.setStep(target));
-
-              return CompletableFuture.failedFuture(new SkipNextSteps(records));
-            });
+            return handled.thenApply(r -> Outcome.redirect(r, goToStep == null ? step : goToStep));
           });
 
       return this;
     }
   }
 
-  private record PipelineWithMessage<A>(
-      A record,
-      Optional<CommitOperation<A>> commit,
-      Optional<RollbackOperation<A>> rollback,
-      Pipeline<A> pipeline,
-      ErrorPipeline<A> errorPipeline,
-      Step to) {
-    public static <A> PipelineWithMessage<A> from(
-        LeafCarrier<A> input, Pipeline<A> pipeline, ErrorPipeline<A> errorPipeline, Step to) {
-      return new PipelineWithMessage<>(
-          input.getData(),
-          input.getCommitOperation(),
-          input.getRollbackOperation(),
-          pipeline,
-          errorPipeline,
-          to);
+  private record PipelineWithMessages<A>(
+      LeafBatch<LeafCarrier<A>> messages, PipelineStep<A, Step> step) {
+    public Step to() {
+      return step.getTo();
+    }
+
+    public LeafBatch<A> records() {
+      return messages.map(LeafCarrier::getData);
+    }
+  }
+
+  private record Executed<A>(
+      PipelineWithMessages<A> pipeline, LeafBatch<A> output, Throwable cause) {
+    boolean isSuccess() {
+      return cause == null;
     }
   }
 }
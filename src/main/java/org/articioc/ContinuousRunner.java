@@ -0,0 +1,280 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.articioc.base.Leaf;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.execution.ExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps reading records from the provider of an {@link Articioc} and executing them, until it is
+ * stopped.
+ *
+ * <p>Each loop can read ahead up to {@link Builder#prefetch(int)} batches while the current one is
+ * being executed, so that the provider's latency doesn't leave the pipeline idle between batches.
+ * Read-ahead is disabled by default: reads then run concurrently with the writes, commits and
+ * rollbacks of the previous batch, which only providers safe to call from many threads at once
+ * support (a {@code KafkaConsumer} isn't). The same holds for more than one loop.
+ *
+ * <p>Read-ahead is enabled only while the provider is returning full batches: when a read comes back
+ * empty the loop backs off, doubling the delay before the next read up to {@link
+ * Builder#backoff(Duration, Duration)}'s max, and when a batch was full it repolls immediately.
+ *
+ * <p>Records that have already been read when the runner is stopped are executed before the loop
+ * terminates.
+ */
+public class ContinuousRunner<A extends Leaf<M>, M> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ContinuousRunner.class);
+
+  private final Supplier<CompletableFuture<Stream<LeafCarrier<A>>>> read;
+  private final Function<Stream<LeafCarrier<A>>, CompletableFuture<Stream<A>>> execute;
+  private final int loops;
+  private final int prefetch;
+  private final Integer fullBatchSize;
+  private final long minBackoffNanos;
+  private final long maxBackoffNanos;
+  private final ExecutionContext executionContext;
+
+  private final LongAdder reads;
+  private final LongAdder emptyReads;
+  private final LongAdder records;
+  private final LongAdder failures;
+
+  private volatile boolean running;
+  private volatile long runs;
+  private CompletableFuture<Void> termination;
+
+  private ContinuousRunner(Builder<A, M> builder) {
+    this.read = builder.read;
+    this.execute = builder.execute;
+    this.loops = builder.loops;
+    this.prefetch = builder.prefetch;
+    this.fullBatchSize = builder.fullBatchSize;
+    this.minBackoffNanos = builder.minBackoff.toNanos();
+    this.maxBackoffNanos = builder.maxBackoff.toNanos();
+    this.executionContext = builder.executionContext;
+
+    this.reads = new LongAdder();
+    this.emptyReads = new LongAdder();
+    this.records = new LongAdder();
+    this.failures = new LongAdder();
+  }
+
+  /**
+   * Starts the loops. Has no effect if the runner is already running. When restarted while the
+   * loops of a previous {@link #stop()} are still executing their records, the new loops start once
+   * those terminated.
+   */
+  public synchronized ContinuousRunner<A, M> start() {
+    if (running) return this;
+
+    running = true;
+    var run = ++runs;
+    termination = stopped().thenCompose(ignore -> CompletableFuture.allOf(Stream.range(0, loops)
+        .map(i -> new Loop(run).start())
+        .toJavaArray(CompletableFuture[]::new)));
+
+    return this;
+  }
+
+  /**
+   * Stops reading new records. The returned future completes once the records already read have
+   * been executed, by the loops of every earlier start.
+   */
+  public synchronized CompletableFuture<Void> stop() {
+    running = false;
+
+    return stopped();
+  }
+
+  private CompletableFuture<Void> stopped() {
+    return Optional.ofNullable(termination)
+        .orElseGet(() -> CompletableFuture.completedFuture(null));
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public Stats stats() {
+    return new Stats(reads.sum(), emptyReads.sum(), records.sum(), failures.sum());
+  }
+
+  /* Each loop is driven by the completion of its reads and executions, and every iteration is
+   * dispatched on the execution context so that providers completing synchronously don't grow
+   * the stack. */
+  private class Loop {
+    private final Queue<CompletableFuture<Stream<LeafCarrier<A>>>> pending = new ArrayDeque<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final long run;
+
+    private boolean hot;
+    private long backoffNanos;
+
+    /* The loop stops with its run, a restart doesn't resume it. */
+    Loop(long run) {
+      this.run = run;
+    }
+
+    CompletableFuture<Void> start() {
+      executionContext.execute(this::next);
+      return done;
+    }
+
+    private void next() {
+      if (running && run == runs) {
+        int depth = hot ? prefetch : 0;
+        while (pending.size() <= depth) {
+          reads.increment();
+          pending.add(read.get());
+        }
+      }
+
+      var head = pending.poll();
+      if (head == null) {
+        done.complete(null);
+        return;
+      }
+
+      head.thenCompose(batch -> {
+            if (batch.isEmpty()) {
+              emptyReads.increment();
+              return CompletableFuture.completedFuture(0);
+            }
+
+            return execute.apply(batch).thenApply(ignore -> batch.size());
+          })
+          .handle((size, ex) -> {
+            if (ex != null) {
+              failures.increment();
+              logger.atWarn().log("Continuous runner iteration failed.", ex);
+            } else {
+              records.add(size);
+            }
+
+            return delayBeforeNext(ex != null ? 0 : size);
+          })
+          .thenAccept(delay -> {
+            var executor = delay == 0
+                ? executionContext
+                : CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executionContext);
+
+            executor.execute(this::next);
+          });
+    }
+
+    private long delayBeforeNext(int size) {
+      if (size == 0) {
+        hot = false;
+        backoffNanos = backoffNanos == 0
+            ? minBackoffNanos
+            : Math.min(maxBackoffNanos, backoffNanos * 2);
+
+        return backoffNanos;
+      }
+
+      backoffNanos = 0;
+      hot = fullBatchSize == null || size >= fullBatchSize;
+
+      return 0;
+    }
+  }
+
+  /**
+   * Snapshot of the runner's counters.
+   *
+   * @param reads reads issued to the provider.
+   * @param emptyReads reads that returned no records.
+   * @param records records of the batches whose execution completed, records the engine rolled back
+   *     included. Batches whose read or execution failed aren't counted.
+   * @param failures reads or executions that failed.
+   */
+  public record Stats(long reads, long emptyReads, long records, long failures) {}
+
+  public static class Builder<A extends Leaf<M>, M> {
+    private final Supplier<CompletableFuture<Stream<LeafCarrier<A>>>> read;
+    private final Function<Stream<LeafCarrier<A>>, CompletableFuture<Stream<A>>> execute;
+    private int loops = 1;
+    private int prefetch = 0;
+    private Integer fullBatchSize;
+    private Duration minBackoff = Duration.ofMillis(10);
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    private ExecutionContext executionContext = ExecutionContext.commonPool();
+
+    public Builder(Articioc<A, M> articioc) {
+      Objects.requireNonNull(articioc);
+
+      this.read = articioc::read;
+      this.execute = articioc::execute;
+    }
+
+    /** Number of independent loops reading from the provider. Defaults to 1. */
+    public Builder<A, M> loops(int loops) {
+      if (loops <= 0) throw new IllegalArgumentException("Loops must be greater than 0.");
+
+      this.loops = loops;
+      return this;
+    }
+
+    /**
+     * Number of batches each loop reads ahead while executing the current one. Defaults to 0, no
+     * read-ahead: enable it only for providers whose reads can run concurrently with commits.
+     */
+    public Builder<A, M> prefetch(int prefetch) {
+      if (prefetch < 0) throw new IllegalArgumentException("Prefetch must not be negative.");
+
+      this.prefetch = prefetch;
+      return this;
+    }
+
+    /**
+     * Size of a full batch, usually the limit of the provider's reads. Smaller batches mean the
+     * provider is being drained, so the loop stops reading ahead until a full batch comes back.
+     * When not set every non-empty batch is considered full.
+     */
+    public Builder<A, M> fullBatchSize(int fullBatchSize) {
+      if (fullBatchSize <= 0) {
+        throw new IllegalArgumentException("Full batch size must be greater than 0.");
+      }
+
+      this.fullBatchSize = fullBatchSize;
+      return this;
+    }
+
+    /**
+     * Bounds of the delay applied after empty reads, {@code min} must be greater than 0. Defaults
+     * to 10ms and 1s.
+     */
+    public Builder<A, M> backoff(Duration min, Duration max) {
+      if (min.isNegative() || min.isZero() || min.compareTo(max) > 0) {
+        throw new IllegalArgumentException("Backoff bounds are not valid.");
+      }
+
+      this.minBackoff = min;
+      this.maxBackoff = max;
+      return this;
+    }
+
+    /** Where the loops run. Defaults to {@link ExecutionContext#commonPool()}. */
+    public Builder<A, M> executionContext(ExecutionContext executionContext) {
+      this.executionContext = Objects.requireNonNull(executionContext);
+      return this;
+    }
+
+    public ContinuousRunner<A, M> build() {
+      return new ContinuousRunner<>(this);
+    }
+  }
+}
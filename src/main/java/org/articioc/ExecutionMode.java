@@ -0,0 +1,31 @@
+package org.articioc;
+
+/** Defines how a batch of records read from the provider is executed by {@link Articioc}. */
+public enum ExecutionMode {
+  /**
+   * Each record runs its checkpoint on its own: the checkpoint's pipeline receives a stream with a
+   * single record and its output is written to the provider and committed independently.
+   */
+  PER_RECORD,
+  /**
+   * Records of the same batch are grouped by their current step and each checkpoint's pipeline is
+   * applied once to the whole group, so many-to-many steps receive every record of the group. All
+   * the records produced by the batch are written to the provider with a single call, then each
+   * group is committed (or rolled back) with the records it produced: every record of the group
+   * receives the output of the whole group. Groups that failed are rolled back, the records of the
+   * others are still returned.
+   *
+   * <p>Providers whose commit depends on the output of each record, see {@link
+   * org.articioc.base.interfaces.Provider#commitsOnOwnOutput()}, receive instead the records of the
+   * output with the same {@link org.articioc.base.Leaf#key()}.
+   */
+  BATCH,
+  /**
+   * Each record runs its checkpoint on its own, as in {@link #PER_RECORD}, on one of a fixed number
+   * of serial lanes chosen by the hash of {@link org.articioc.base.Leaf#key()}. Records with the
+   * same key are executed one after the other, in the order they were read, across reads; records
+   * on different lanes run in parallel on the execution context, {@link
+   * org.articioc.base.execution.ExecutionContext#commonPool()} when none is set.
+   */
+  KEY_ORDERED
+}
@@ -0,0 +1,216 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Records passed between the stages of the engine.
+ *
+ * <p>Backed by an array of known size, it's built once and then only read: partitioning and
+ * grouping take a single pass and allocate just the resulting batches. Steps keep receiving vavr
+ * {@link Stream}s, {@link #toStream()} and {@link #ofAll(Iterable)} adapt the batch at the
+ * boundaries.
+ */
+final class LeafBatch<A> implements Iterable<A> {
+
+  private static final LeafBatch<?> EMPTY = new LeafBatch<>(new Object[0], 0);
+
+  private final Object[] items;
+  private final int size;
+
+  private LeafBatch(Object[] items, int size) {
+    this.items = items;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A> LeafBatch<A> empty() {
+    return (LeafBatch<A>) EMPTY;
+  }
+
+  @SafeVarargs
+  static <A> LeafBatch<A> concat(LeafBatch<? extends A>... batches) {
+    return flatten(Arrays.asList(batches));
+  }
+
+  static <A> LeafBatch<A> flatten(Iterable<? extends LeafBatch<? extends A>> batches) {
+    var total = 0;
+    for (var batch : batches) {
+      total += batch.size;
+    }
+
+    var builder = new Builder<A>(total);
+    for (var batch : batches) {
+      builder.addAll(batch);
+    }
+
+    return builder.build();
+  }
+
+  static <A> LeafBatch<A> of(A item) {
+    return new LeafBatch<>(new Object[] {item}, 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A> LeafBatch<A> ofAll(Iterable<? extends A> items) {
+    if (items instanceof LeafBatch<? extends A> batch) return (LeafBatch<A>) batch;
+
+    var builder = new Builder<A>(8);
+    for (A item : items) {
+      builder.add(item);
+    }
+
+    return builder.build();
+  }
+
+  /** Waits for all the batches and concatenates them, in order. */
+  static <A> CompletableFuture<LeafBatch<A>> whenAll(
+      LeafBatch<CompletableFuture<LeafBatch<A>>> futures) {
+    if (futures.isEmpty()) return CompletableFuture.completedFuture(empty());
+    if (futures.size() == 1) return futures.get(0);
+
+    var array = futures.toArray(CompletableFuture[]::new);
+
+    return CompletableFuture.allOf(array)
+        .thenApply(ignore -> flatten(futures.map(CompletableFuture::join)));
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  A get(int index) {
+    if (index >= size) throw new IndexOutOfBoundsException(index);
+
+    return (A) items[index];
+  }
+
+  boolean allMatch(Predicate<? super A> predicate) {
+    for (int i = 0; i < size; i++) {
+      if (!predicate.test(get(i))) return false;
+    }
+
+    return true;
+  }
+
+  <B> LeafBatch<B> map(Function<? super A, ? extends B> mapper) {
+    if (size == 0) return empty();
+
+    var mapped = new Object[size];
+    for (int i = 0; i < size; i++) {
+      mapped[i] = mapper.apply(get(i));
+    }
+
+    return new LeafBatch<>(mapped, size);
+  }
+
+  /** Splits the records in those matching the predicate and the rest, keeping their order. */
+  Partition<A> partition(Predicate<? super A> predicate) {
+    var matching = new Builder<A>(size);
+    var rest = new Builder<A>(size);
+
+    for (int i = 0; i < size; i++) {
+      var item = get(i);
+      (predicate.test(item) ? matching : rest).add(item);
+    }
+
+    return new Partition<>(matching.build(), rest.build());
+  }
+
+  /** Groups the records by key, keeping the order in which keys and records are met. */
+  <K> Map<K, LeafBatch<A>> groupBy(Function<? super A, ? extends K> key) {
+    Map<K, Builder<A>> builders = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      var item = get(i);
+      builders.computeIfAbsent(key.apply(item), k -> new Builder<>(4)).add(item);
+    }
+
+    Map<K, LeafBatch<A>> groups = new LinkedHashMap<>();
+    builders.forEach((k, builder) -> groups.put(k, builder.build()));
+
+    return groups;
+  }
+
+  <T> T[] toArray(IntFunction<T[]> generator) {
+    var array = generator.apply(size);
+    System.arraycopy(items, 0, array, 0, size);
+
+    return array;
+  }
+
+  /** The records as a vavr {@link Stream}, as expected by steps and providers. */
+  @SuppressWarnings("unchecked")
+  Stream<A> toStream() {
+    if (size == 0) return Stream.empty();
+    if (size == 1) return Stream.of(get(0));
+
+    return Stream.ofAll((Iterable<A>) Arrays.asList(items).subList(0, size));
+  }
+
+  @Override
+  public Iterator<A> iterator() {
+    return new Iterator<>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public A next() {
+        if (next >= size) throw new NoSuchElementException();
+
+        return get(next++);
+      }
+    };
+  }
+
+  record Partition<A>(LeafBatch<A> matching, LeafBatch<A> rest) {}
+
+  /** Collects records into a batch. Can't be used after {@link #build()}. */
+  static final class Builder<A> {
+    private Object[] items;
+    private int size;
+
+    Builder(int capacity) {
+      this.items = new Object[Math.max(capacity, 1)];
+    }
+
+    Builder<A> add(A item) {
+      if (size == items.length) items = Arrays.copyOf(items, size * 2);
+
+      items[size++] = item;
+      return this;
+    }
+
+    Builder<A> addAll(LeafBatch<? extends A> batch) {
+      if (size + batch.size > items.length) {
+        items = Arrays.copyOf(items, Math.max(size + batch.size, size * 2));
+      }
+
+      System.arraycopy(batch.items, 0, items, size, batch.size);
+      size += batch.size;
+      return this;
+    }
+
+    LeafBatch<A> build() {
+      if (size == 0) return empty();
+
+      return new LeafBatch<>(items, size);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package org.articioc;
+
+import io.vavr.collection.List;
+import java.util.Optional;
+import org.articioc.base.Step;
+import org.articioc.base.StepRegistry;
+
+/**
+ * Immutable dispatch index that links each {@link Step} to the {@link PipelineStep} that has to be
+ * executed for records that are currently at that step.
+ *
+ * <p>It is built once by {@link Articioc.Builder#end()} as an array indexed by {@link Step#id()},
+ * so routing a record read from the provider costs a bounds check and an array read instead of a
+ * linear scan over all the checkpoints.
+ */
+final class PipelineRoutes<A> {
+
+  private final PipelineStep<A, Step>[] routes;
+  private final int size;
+
+  private PipelineRoutes(PipelineStep<A, Step>[] routes, int size) {
+    this.routes = routes;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A> PipelineRoutes<A> compile(List<PipelineStep<A, Step>> steps) {
+    /* Declared steps are interned, even when created with Step.lookup. */
+    var length = steps.map(step -> StepRegistry.idOf(step.getFrom().getName()) + 1)
+        .max()
+        .getOrElse(0);
+    var index = (PipelineStep<A, Step>[]) new PipelineStep[length];
+    var size = 0;
+
+    /* When the same step is declared more than once the first declaration wins,
+     * as it was when routes were resolved by scanning the builder in order. */
+    for (var step : steps) {
+      var id = StepRegistry.idOf(step.getFrom().getName());
+      if (index[id] == null) {
+        index[id] = step;
+        size++;
+      }
+    }
+
+    return new PipelineRoutes<>(index, size);
+  }
+
+  Optional<PipelineStep<A, Step>> route(Step step) {
+    if (step == null) return Optional.empty();
+
+    var id = step.id();
+    return Optional.ofNullable(id >= 0 && id < routes.length ? routes[id] : null);
+  }
+
+  int size() {
+    return size;
+  }
+}
@@ -1,14 +1,24 @@
 package org.articioc;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import org.articioc.base.Leaf;
 import org.articioc.base.Step;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.interfaces.Provider;
+import org.articioc.base.utils.StepCache;
+import org.articioc.interfaces.endless.EndlessCollector;
 
 public class StepOptions<A extends Leaf<M>, M> {
 
   private EndlessOptions<A, M> endless;
   private CheckpointOptions<A, M> checkpoint;
+  private ParallelOptions<A, M> parallel;
+  private TimeoutOptions<A, M> timeout;
+  private CacheOptions<A, M> cache;
+  private SingleFlightOptions<A, M> singleFlight;
 
   public StepOptions() {}
 
@@ -30,8 +40,140 @@ public class StepOptions<A extends Leaf<M>, M> {
     return this;
   }
 
+  public Optional<ParallelOptions<A, M>> getParallel() {
+    return Optional.ofNullable(parallel);
+  }
+
+  public StepOptions<A, M> setParallel(ParallelOptions<A, M> parallel) {
+    this.parallel = parallel;
+    return this;
+  }
+
+  public Optional<TimeoutOptions<A, M>> getTimeout() {
+    return Optional.ofNullable(timeout);
+  }
+
+  public StepOptions<A, M> setTimeout(TimeoutOptions<A, M> timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  public Optional<CacheOptions<A, M>> getCache() {
+    return Optional.ofNullable(cache);
+  }
+
+  public StepOptions<A, M> setCache(CacheOptions<A, M> cache) {
+    this.cache = cache;
+    return this;
+  }
+
+  public Optional<SingleFlightOptions<A, M>> getSingleFlight() {
+    return Optional.ofNullable(singleFlight);
+  }
+
+  public StepOptions<A, M> setSingleFlight(SingleFlightOptions<A, M> singleFlight) {
+    this.singleFlight = singleFlight;
+    return this;
+  }
+
+  /**
+   * @param concurrency chunks processed at the same time, 1 by default. Chunks are dispatched on the
+   *     builder's execution context: without one they'd run on the calling thread, one at a time,
+   *     so a concurrency greater than 1 is refused.
+   * @param preserveOrder whether the collected output keeps the order of the chunks, {@code true}
+   *     by default. When {@code false} the output of each chunk is collected as it completes.
+   * @param collector what the step returns, it takes precedence over {@code shouldCollect}. By
+   *     default {@link EndlessCollector#all()}, or {@link EndlessCollector#none()} when {@code
+   *     shouldCollect} is {@code false}.
+   */
   public record EndlessOptions<A extends Leaf<M>, M>(
-      Provider<A> provider, Step step, Boolean shouldCollect) {}
+      Provider<A> provider,
+      Step step,
+      Boolean shouldCollect,
+      Integer concurrency,
+      Boolean preserveOrder,
+      EndlessCollector<A> collector) {
+
+    public EndlessOptions(Provider<A> provider, Step step, Boolean shouldCollect) {
+      this(provider, step, shouldCollect, null, null, null);
+    }
+
+    public EndlessOptions(
+        Provider<A> provider,
+        Step step,
+        Boolean shouldCollect,
+        Integer concurrency,
+        Boolean preserveOrder) {
+      this(provider, step, shouldCollect, concurrency, preserveOrder, null);
+    }
+  }
 
   public record CheckpointOptions<A extends Leaf<M>, M>(boolean readonly) {}
+
+  /**
+   * @param chunkSize records processed by each task, by default the batch is split in four tasks
+   *     per thread of the execution context, see {@link ExecutionContext#parallelism()}.
+   * @param preserveOrder whether the output keeps the order of the chunks, {@code true} by default.
+   *     When {@code false} chunks are merged as they complete.
+   * @param executionContext where chunks run, {@link ExecutionContext#commonPool()} by default.
+   */
+  public record ParallelOptions<A extends Leaf<M>, M>(
+      Integer chunkSize, Boolean preserveOrder, ExecutionContext executionContext) {}
+
+  /**
+   * @param timeout how long the step can take on a record, unbounded by default. Once elapsed the
+   *     step fails with a {@link org.articioc.exceptions.StepTimeoutException}, handled by {@code
+   *     onError}.
+   * @param hedgeAfter delay after which a second attempt is started on a record whose first one is
+   *     still running, the first attempt to succeed wins. No hedging by default.
+   * @param hedgePercentile when set, between 0 and 1, the delay is the given percentile of the
+   *     latencies observed by the step. {@code hedgeAfter} is used until enough of them are known.
+   * @param executionContext where timeouts and second attempts run, {@link
+   *     ExecutionContext#commonPool()} by default.
+   * @param copy copies a record, each attempt then runs on its own copy. Attempts that timed out
+   *     or lost to the other one aren't interrupted: without a copy they keep running on the record
+   *     the pipeline goes on with, so the step must not modify its input.
+   */
+  public record TimeoutOptions<A extends Leaf<M>, M>(
+      Duration timeout,
+      Duration hedgeAfter,
+      Double hedgePercentile,
+      ExecutionContext executionContext,
+      UnaryOperator<A> copy) {
+
+    public TimeoutOptions(
+        Duration timeout,
+        Duration hedgeAfter,
+        Double hedgePercentile,
+        ExecutionContext executionContext) {
+      this(timeout, hedgeAfter, hedgePercentile, executionContext, null);
+    }
+
+    public TimeoutOptions(Duration timeout) {
+      this(timeout, null, null, null, null);
+    }
+  }
+
+  /**
+   * @param cache where the results are kept, the caller can read its {@link StepCache#stats()}.
+   * @param key key of the record in the cache, {@link Leaf#key()} by default.
+   * @param copy copies a record. The cache keeps a copy of each result, and returns a copy of it on
+   *     each hit, carrying the metadata of the record it replaces.
+   */
+  public record CacheOptions<A extends Leaf<M>, M>(
+      StepCache<String, A> cache, Function<A, String> key, UnaryOperator<A> copy) {
+
+    public CacheOptions(StepCache<String, A> cache, UnaryOperator<A> copy) {
+      this(cache, null, copy);
+    }
+  }
+
+  /**
+   * @param key key of the record, records with the same key share a running call. {@link
+   *     Leaf#key()} by default.
+   * @param copy copies a record. The records sharing a call get a copy of its result, carrying
+   *     their own metadata.
+   */
+  public record SingleFlightOptions<A extends Leaf<M>, M>(
+      Function<A, String> key, UnaryOperator<A> copy) {}
 }
@@ -0,0 +1,255 @@
+package org.articioc;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.articioc.base.execution.ExecutionContext;
+
+/**
+ * One-to-* steps of a checkpoint run as a chain of {@link Flow} stages, instead of each of them
+ * running on the whole batch before the next one starts.
+ *
+ * <p>Stages are connected by {@link SubmissionPublisher}s holding at most {@code bufferSize}
+ * records. Each stage runs its step on up to {@code concurrency} records at once and takes the next
+ * record only once it handed over what it produced for a previous one. A step that explodes a
+ * record into many, returning a lazy stream, produces them as fast as the next steps consume them,
+ * and those steps start with the first record produced. Publishing to a full stage blocks, so
+ * stages run on an execution context that tolerates it.
+ *
+ * <p>What leaves the last stage is collected, since the checkpoint writes it to the provider.
+ */
+final class StreamingSteps<A> {
+
+  private final List<Function<A, CompletableFuture<Stream<A>>>> steps;
+  private final int bufferSize;
+  private final int concurrency;
+  private final boolean preserveOrder;
+  private final ExecutionContext executionContext;
+
+  StreamingSteps(int bufferSize, ExecutionContext executionContext) {
+    this(bufferSize, 1, true, executionContext);
+  }
+
+  StreamingSteps(
+      int bufferSize, int concurrency, boolean preserveOrder, ExecutionContext executionContext) {
+    this(List.empty(), bufferSize, concurrency, preserveOrder, executionContext);
+  }
+
+  private StreamingSteps(
+      List<Function<A, CompletableFuture<Stream<A>>>> steps,
+      int bufferSize,
+      int concurrency,
+      boolean preserveOrder,
+      ExecutionContext executionContext) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be greater than 0.");
+    }
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("Concurrency must be greater than 0.");
+    }
+
+    this.steps = steps;
+    this.bufferSize = bufferSize;
+    this.concurrency = concurrency;
+    this.preserveOrder = preserveOrder;
+    this.executionContext = executionContext;
+  }
+
+  StreamingSteps<A> with(Function<A, CompletableFuture<Stream<A>>> step) {
+    return new StreamingSteps<>(
+        steps.append(step), bufferSize, concurrency, preserveOrder, executionContext);
+  }
+
+  /** Same options, without steps. */
+  StreamingSteps<A> empty() {
+    return new StreamingSteps<>(bufferSize, concurrency, preserveOrder, executionContext);
+  }
+
+  boolean isEmpty() {
+    return steps.isEmpty();
+  }
+
+  CompletableFuture<Stream<A>> apply(Stream<A> records) {
+    var result = new CompletableFuture<Stream<A>>();
+    var source = new SubmissionPublisher<A>(executionContext, bufferSize);
+
+    Flow.Publisher<A> upstream = source;
+    for (var step : steps) {
+      var stage = new Stage<>(
+          step,
+          new SubmissionPublisher<>(executionContext, bufferSize),
+          concurrency,
+          preserveOrder,
+          executionContext);
+      upstream.subscribe(stage);
+      upstream = stage;
+    }
+    upstream.subscribe(new Collector<>(result));
+
+    executionContext.execute(() -> {
+      try {
+        for (var record : records) {
+          if (result.isDone()) break;
+          source.submit(record);
+        }
+        source.close();
+      } catch (Throwable ex) {
+        source.closeExceptionally(ex);
+      }
+    });
+
+    return result;
+  }
+
+  /* A stage requests a record for each free slot and starts the step on it without waiting. What a
+   * record produced is published on the execution context once the step completed, in the order
+   * records arrived or as they complete, and only then is the next record requested. Publishing
+   * blocks while the next stage is full: meanwhile this stage's own buffer fills up and, once full,
+   * blocks the previous stage. A single thread at a time publishes. */
+  private static final class Stage<A> implements Flow.Processor<A, A> {
+    private final Function<A, CompletableFuture<Stream<A>>> step;
+    private final SubmissionPublisher<A> downstream;
+    private final int concurrency;
+    private final boolean preserveOrder;
+    private final Executor executor;
+
+    private final Queue<CompletableFuture<Stream<A>>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger drains = new AtomicInteger();
+    private volatile boolean upstreamCompleted;
+    private Flow.Subscription upstream;
+
+    Stage(
+        Function<A, CompletableFuture<Stream<A>>> step,
+        SubmissionPublisher<A> downstream,
+        int concurrency,
+        boolean preserveOrder,
+        Executor executor) {
+      this.step = step;
+      this.downstream = downstream;
+      this.concurrency = concurrency;
+      this.preserveOrder = preserveOrder;
+      this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super A> subscriber) {
+      downstream.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.upstream = subscription;
+      subscription.request(concurrency);
+    }
+
+    @Override
+    public void onNext(A item) {
+      if (downstream.isClosed()) return;
+
+      inFlight.incrementAndGet();
+
+      CompletableFuture<Stream<A>> produced;
+      try {
+        produced = step.apply(item);
+      } catch (Throwable ex) {
+        produced = CompletableFuture.failedFuture(ex);
+      }
+
+      var current = produced;
+      if (preserveOrder) pending.add(current);
+
+      /* Records are delivered on the execution context already, only late completions move. */
+      if (current.isDone()) {
+        completed(current);
+      } else {
+        current.whenCompleteAsync((ignore, ex) -> completed(current), executor);
+      }
+    }
+
+    private void completed(CompletableFuture<Stream<A>> produced) {
+      if (!preserveOrder) pending.add(produced);
+      drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      downstream.closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      this.upstreamCompleted = true;
+      drain();
+    }
+
+    private void drain() {
+      if (drains.getAndIncrement() != 0) return;
+
+      do {
+        CompletableFuture<Stream<A>> head;
+        while ((head = pending.peek()) != null && head.isDone()) {
+          pending.poll();
+          publish(head);
+          inFlight.decrementAndGet();
+
+          if (!downstream.isClosed()) upstream.request(1);
+        }
+
+        if (upstreamCompleted && inFlight.get() == 0) downstream.close();
+      } while (drains.decrementAndGet() != 0);
+    }
+
+    private void publish(CompletableFuture<Stream<A>> produced) {
+      if (downstream.isClosed()) return;
+
+      try {
+        for (var record : produced.join()) {
+          downstream.submit(record);
+        }
+      } catch (Throwable ex) {
+        upstream.cancel();
+        downstream.closeExceptionally(ex instanceof CompletionException ce ? ce.getCause() : ex);
+      }
+    }
+  }
+
+  /* SubmissionPublisher delivers to each subscriber one record at a time, so no lock is needed. */
+  private static final class Collector<A> implements Flow.Subscriber<A> {
+    private final CompletableFuture<Stream<A>> result;
+    private final ArrayList<A> collected = new ArrayList<>();
+
+    Collector(CompletableFuture<Stream<A>> result) {
+      this.result = result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(A item) {
+      collected.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      result.complete(Stream.ofAll(collected));
+    }
+  }
+}
@@ -2,11 +2,19 @@ package org.articioc.exceptions;
 
 import io.vavr.collection.Stream;
 
+/**
+ * Thrown by a step to skip the remaining steps of the checkpoint, records are written with the step
+ * they carry. Steps that can return an {@link org.articioc.interfaces.Outcome} should prefer {@link
+ * org.articioc.interfaces.Outcome#skip(Stream)}.
+ *
+ * <p>It's a signal rather than an error, so it doesn't capture a stack trace.
+ */
 public class SkipNextSteps extends RuntimeException {
 
   private final Stream<?> records;
 
   public SkipNextSteps(Stream<?> records) {
+    super(null, null, false, false);
     this.records = records;
   }
 
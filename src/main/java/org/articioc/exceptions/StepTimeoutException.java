@@ -0,0 +1,22 @@
+package org.articioc.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Fails a step that didn't complete within the timeout of its {@link
+ * org.articioc.StepOptions.TimeoutOptions}. It goes through the error handlers of the checkpoint
+ * like any other failure.
+ */
+public class StepTimeoutException extends RuntimeException {
+
+  private final Duration timeout;
+
+  public StepTimeoutException(Duration timeout) {
+    super("Step didn't complete within " + timeout + ".", null, false, false);
+    this.timeout = timeout;
+  }
+
+  public Duration getTimeout() {
+    return timeout;
+  }
+}
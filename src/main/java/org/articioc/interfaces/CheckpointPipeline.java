@@ -0,0 +1,21 @@
+package org.articioc.interfaces;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/** The steps between two checkpoints, from the records at the checkpoint to their outcome. */
+public interface CheckpointPipeline<A>
+    extends Function<Stream<A>, CompletableFuture<Outcome<A>>> {
+  static <A> CheckpointPipeline<A> identity() {
+    return records -> CompletableFuture.completedFuture(Outcome.next(records));
+  }
+
+  /** Records that skipped the remaining steps are passed through without running {@code next}. */
+  default CheckpointPipeline<A> andThen(CheckpointPipeline<A> next) {
+    return records -> this.apply(records).thenCompose(outcome -> switch (outcome) {
+      case Outcome.Continue<A> c -> next.apply(c.records());
+      default -> CompletableFuture.completedFuture(outcome);
+    });
+  }
+}
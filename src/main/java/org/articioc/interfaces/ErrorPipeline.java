@@ -9,5 +9,5 @@ public interface ErrorPipeline<A> {
     return (ex, s, step) -> CompletableFuture.failedFuture(ex);
   }
 
-  CompletableFuture<Stream<A>> apply(Exception e, Stream<A> s, Step step);
+  CompletableFuture<Outcome<A>> apply(Exception e, Stream<A> s, Step step);
 }
@@ -0,0 +1,37 @@
+package org.articioc.interfaces;
+
+import io.vavr.collection.Stream;
+import org.articioc.base.Step;
+
+/**
+ * What the steps of a checkpoint produced: records that go on to the next step, or records that
+ * skip the remaining steps of the checkpoint.
+ *
+ * <p>Skipping and redirecting are part of the normal flow of a pipeline, so they are returned
+ * rather than thrown; exceptions are left to actual failures.
+ */
+public sealed interface Outcome<A> {
+
+  static <A> Outcome<A> next(Stream<A> records) {
+    return new Continue<>(records);
+  }
+
+  static <A> Outcome<A> skip(Stream<A> records) {
+    return new Skip<>(records);
+  }
+
+  static <A> Outcome<A> redirect(Stream<A> records, Step step) {
+    return new Redirect<>(records, step);
+  }
+
+  Stream<A> records();
+
+  /** The records go on to the next step of the checkpoint. */
+  record Continue<A>(Stream<A> records) implements Outcome<A> {}
+
+  /** The records skip the remaining steps and are written with the step they carry. */
+  record Skip<A>(Stream<A> records) implements Outcome<A> {}
+
+  /** The records skip the remaining steps and are moved to the given step. */
+  record Redirect<A>(Stream<A> records, Step step) implements Outcome<A> {}
+}
@@ -0,0 +1,51 @@
+package org.articioc.interfaces.endless;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the cursor of resumable endless sources, see {@link ResumableEndless}.
+ *
+ * <p>Cursors are saved by the engine after each chunk has been processed and cleared once the
+ * source is exhausted. Ids are the {@link org.articioc.base.Leaf#key()} of the records that started
+ * the endless step.
+ */
+public interface CursorStore {
+
+  CompletableFuture<Optional<String>> load(String id);
+
+  CompletableFuture<Void> save(String id, String cursor);
+
+  CompletableFuture<Void> clear(String id);
+
+  /** Keeps the cursors in memory, they are lost when the process stops. */
+  static CursorStore inMemory() {
+    var cursors = new ConcurrentHashMap<String, String>();
+
+    return new CursorStore() {
+      @Override
+      public CompletableFuture<Optional<String>> load(String id) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(cursors.get(id)));
+      }
+
+      @Override
+      public CompletableFuture<Void> save(String id, String cursor) {
+        cursors.put(id, cursor);
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Void> clear(String id) {
+        cursors.remove(id);
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+  }
+
+  /** Keeps each cursor in a file of {@code directory}, see {@link FileCursorStore}. */
+  static CursorStore file(Path directory) {
+    return new FileCursorStore(directory);
+  }
+}
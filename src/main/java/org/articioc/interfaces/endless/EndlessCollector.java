@@ -0,0 +1,218 @@
+package org.articioc.interfaces.endless;
+
+import io.vavr.collection.Stream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.articioc.base.interfaces.Provider;
+
+/**
+ * Decides what an endless step returns once its source is exhausted.
+ *
+ * <p>Each run of the step opens its own {@link Accumulator}, which receives the output of every
+ * chunk. Apart from {@link #all()}, the strategies keep a bounded number of records in memory, so
+ * they fit sources that never end or produce more records than the heap can hold.
+ */
+@FunctionalInterface
+public interface EndlessCollector<A> {
+
+  Accumulator<A> open();
+
+  interface Accumulator<A> {
+    /**
+     * Receives the output of a chunk. Calls are never concurrent: the next one waits for the
+     * returned future, and so does the chunk that produced the records.
+     */
+    CompletableFuture<Void> add(Stream<A> records);
+
+    /** Called once, after the output of the last chunk has been added. */
+    CompletableFuture<Stream<A>> result();
+
+    /**
+     * Called instead of {@link #result()} when the step fails, to release what the accumulator
+     * holds. Does nothing by default.
+     */
+    default void discard() {}
+  }
+
+  /** Discards the output, the step returns no records. */
+  static <A> EndlessCollector<A> none() {
+    return () -> new Accumulator<>() {
+      @Override
+      public CompletableFuture<Void> add(Stream<A> records) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Stream<A>> result() {
+        return CompletableFuture.completedFuture(Stream.of());
+      }
+    };
+  }
+
+  /** Keeps the whole output on heap, the default when {@code shouldCollect} is set. */
+  static <A> EndlessCollector<A> all() {
+    return () -> new Accumulator<>() {
+      private final List<Stream<A>> chunks = new ArrayList<>();
+
+      @Override
+      public CompletableFuture<Void> add(Stream<A> records) {
+        chunks.add(records);
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Stream<A>> result() {
+        return CompletableFuture.completedFuture(Stream.ofAll(chunks).flatMap(Function.identity()));
+      }
+    };
+  }
+
+  /** Keeps the last {@code size} records of the output. */
+  static <A> EndlessCollector<A> last(int size) {
+    requirePositive(size, "Size");
+
+    return () -> new Accumulator<>() {
+      private final ArrayDeque<A> records = new ArrayDeque<>(size);
+
+      @Override
+      public CompletableFuture<Void> add(Stream<A> chunk) {
+        for (A record : chunk) {
+          if (records.size() == size) records.removeFirst();
+          records.addLast(record);
+        }
+
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Stream<A>> result() {
+        return CompletableFuture.completedFuture(Stream.ofAll(records));
+      }
+    };
+  }
+
+  /**
+   * Keeps a uniform random sample of {@code size} records of the output (reservoir sampling). The
+   * sample follows the order in which records were selected, not the order of the output.
+   */
+  static <A> EndlessCollector<A> sample(int size) {
+    requirePositive(size, "Size");
+
+    return () -> new Accumulator<>() {
+      private final List<A> reservoir = new ArrayList<>(size);
+      private long seen;
+
+      @Override
+      public CompletableFuture<Void> add(Stream<A> chunk) {
+        var random = ThreadLocalRandom.current();
+
+        for (A record : chunk) {
+          seen++;
+          if (reservoir.size() < size) {
+            reservoir.add(record);
+          } else {
+            var slot = random.nextLong(seen);
+            if (slot < size) reservoir.set((int) slot, record);
+          }
+        }
+
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Stream<A>> result() {
+        return CompletableFuture.completedFuture(Stream.ofAll(reservoir));
+      }
+    };
+  }
+
+  /**
+   * Hands the output to a provider as chunks complete, in writes of {@code batchSize} records. The
+   * remaining records are written when the source is exhausted, then the step returns no records.
+   */
+  static <A> EndlessCollector<A> toProvider(Provider<A> provider, int batchSize) {
+    Objects.requireNonNull(provider);
+    requirePositive(batchSize, "Batch size");
+
+    return () -> new Accumulator<>() {
+      private List<A> batch = new ArrayList<>(batchSize);
+
+      @Override
+      public CompletableFuture<Void> add(Stream<A> chunk) {
+        var writes = new ArrayList<CompletableFuture<?>>();
+
+        for (A record : chunk) {
+          batch.add(record);
+          if (batch.size() == batchSize) writes.add(flush());
+        }
+
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+      }
+
+      @Override
+      public CompletableFuture<Stream<A>> result() {
+        var remaining = batch.isEmpty() ? CompletableFuture.completedFuture(null) : flush();
+
+        return remaining.thenApply(ignore -> Stream.of());
+      }
+
+      private CompletableFuture<?> flush() {
+        var written = provider.write(Stream.ofAll(batch));
+        batch = new ArrayList<>(batchSize);
+
+        return written;
+      }
+    };
+  }
+
+  /**
+   * Writes the output to a temporary file in {@code directory}, one line per record, and reads it
+   * back once the source is exhausted. {@code encode} must not produce line breaks.
+   *
+   * <p>The output is decoded lazily, as it's traversed: the collector holds no records in memory,
+   * how many are held at once depends on the steps that consume the output. The file is deleted
+   * once read to the end, once the output is no longer reachable, or when the step fails. Reads and
+   * writes are synchronous, so the step should run on an execution context that tolerates blocking.
+   */
+  static <A> EndlessCollector<A> spillToDisk(
+      Path directory, Function<A, String> encode, Function<String, A> decode) {
+    Objects.requireNonNull(directory);
+    Objects.requireNonNull(encode);
+    Objects.requireNonNull(decode);
+
+    return () -> {
+      Path file = null;
+      try {
+        file = Files.createTempFile(directory, "articioc-endless-", ".spill");
+
+        return new SpillAccumulator<>(file, encode, decode);
+      } catch (IOException e) {
+        deleteQuietly(file);
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) return;
+
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      /* Nothing else to do, the original failure is reported. */
+    }
+  }
+
+  private static void requirePositive(int value, String name) {
+    if (value <= 0) throw new IllegalArgumentException(name + " must be greater than 0.");
+  }
+}
@@ -0,0 +1,213 @@
+package org.articioc.interfaces.endless;
+
+import io.vavr.collection.Stream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.articioc.base.execution.ExecutionContext;
+
+/**
+ * Runs the pipeline of an endless step on each chunk of its source, without holding a thread.
+ *
+ * <p>The loop is driven by up to {@code concurrency} pumps: a pump takes the next chunk, starts its
+ * pipeline and, when the output has been handed to the accumulator, schedules itself on the
+ * execution context to take the following one. Chunks whose pipeline completes synchronously are
+ * handled in place, so the stack doesn't grow with the number of chunks. The result completes when
+ * every pump has found the source exhausted, or a chunk has failed.
+ *
+ * <p>When the order is preserved, outputs completed ahead of an earlier chunk wait for it. Pumps
+ * pause while twice {@code concurrency} chunks are running or waiting, so a slow chunk can't make
+ * the waiting outputs grow without bound. Whatever the order of the outputs, chunks are committed
+ * in the order of the source, once they and every earlier chunk completed.
+ */
+final class EndlessLoop<A> {
+
+  private final Iterator<Chunk<A>> source;
+  private final Function<Stream<A>, CompletableFuture<Stream<A>>> pipeline;
+  private final ExecutionContext executionContext;
+  private final EndlessCollector.Accumulator<A> accumulator;
+  private final boolean preserveOrder;
+  private final Supplier<CompletableFuture<Void>> onExhausted;
+
+  private final CompletableFuture<Stream<A>> result = new CompletableFuture<>();
+
+  /* Guarded by this: the source is read by a single pump at a time. */
+  private final Map<Integer, Completed<A>> waiting = new HashMap<>();
+  private CompletableFuture<Void> collecting = CompletableFuture.completedFuture(null);
+  private int window;
+  private int pumps;
+  private int paused;
+  private int pulled;
+  private int collected;
+  private boolean exhausted;
+  private Throwable failure;
+
+  EndlessLoop(
+      Iterator<Chunk<A>> source,
+      Function<Stream<A>, CompletableFuture<Stream<A>>> pipeline,
+      ExecutionContext executionContext,
+      EndlessCollector.Accumulator<A> accumulator,
+      boolean preserveOrder,
+      Supplier<CompletableFuture<Void>> onExhausted) {
+    this.source = source;
+    this.pipeline = pipeline;
+    this.executionContext = executionContext;
+    this.accumulator = accumulator;
+    this.preserveOrder = preserveOrder;
+    this.onExhausted = onExhausted;
+  }
+
+  CompletableFuture<Stream<A>> start(int concurrency) {
+    synchronized (this) {
+      pumps = concurrency;
+      window = preserveOrder ? concurrency * 2 : Integer.MAX_VALUE;
+    }
+
+    for (int i = 0; i < concurrency; i++) {
+      executionContext.execute(this::pump);
+    }
+
+    return result;
+  }
+
+  private void pump() {
+    while (true) {
+      Chunk<A> chunk;
+      int index;
+
+      synchronized (this) {
+        if (failure == null && !exhausted && pulled - collected >= window) {
+          paused++;
+          return;
+        }
+
+        try {
+          if (failure != null || exhausted || !source.hasNext()) {
+            exhausted = true;
+            stop();
+            return;
+          }
+
+          chunk = source.next();
+          index = pulled++;
+        } catch (Throwable ex) {
+          failure = ex;
+          stop();
+          return;
+        }
+      }
+
+      var done = run(chunk.records())
+          .handle((records, ex) -> completed(index, chunk, records, ex))
+          .thenCompose(Function.identity());
+
+      if (!done.isDone()) {
+        done.whenCompleteAsync((ignore, ex) -> pump(), executionContext);
+        return;
+      }
+    }
+  }
+
+  private CompletableFuture<Stream<A>> run(Stream<A> chunk) {
+    try {
+      return pipeline.apply(chunk);
+    } catch (Throwable ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+  }
+
+  /* Hands the output to the accumulator, once every earlier chunk did when the order matters,
+   * then commits the chunks completed without gaps. */
+  private CompletableFuture<Void> completed(
+      int index, Chunk<A> chunk, Stream<A> records, Throwable ex) {
+    int resumed;
+    CompletableFuture<Void> added;
+
+    synchronized (this) {
+      if (ex != null) {
+        if (failure == null) failure = ex;
+      } else {
+        if (!preserveOrder) add(() -> accumulator.add(records));
+        waiting.put(index, new Completed<>(chunk.commit(), preserveOrder ? records : null));
+
+        while (waiting.containsKey(collected)) {
+          var next = waiting.remove(collected++);
+          if (next.records() != null) add(() -> accumulator.add(next.records()));
+          if (next.commit() != null) add(next.commit());
+        }
+      }
+
+      resumed = paused;
+      paused = 0;
+      added = collecting;
+    }
+
+    for (int i = 0; i < resumed; i++) {
+      executionContext.execute(this::pump);
+    }
+
+    return added;
+  }
+
+  /* Called with the lock held. Additions and commits are chained, so they run one by one. */
+  private void add(Supplier<CompletableFuture<Void>> action) {
+    collecting = collecting
+        .thenCompose(ignore -> action.get())
+        .whenComplete((ignore, ex) -> {
+          if (ex != null) failed(ex);
+        });
+  }
+
+  private synchronized void failed(Throwable ex) {
+    if (failure == null) failure = ex;
+  }
+
+  /* Called with the lock held, by a pump that won't take other chunks. */
+  private void stop() {
+    if (--pumps > 0) return;
+
+    if (failure != null) {
+      var cause = failure;
+      collecting.whenComplete((ignore, ex) -> {
+        accumulator.discard();
+        result.completeExceptionally(cause);
+      });
+      return;
+    }
+
+    collecting
+        .thenCompose(ignore -> onExhausted.get())
+        .thenCompose(ignore -> accumulator.result())
+        .whenComplete((records, ex) -> {
+          if (ex == null) {
+            result.complete(records);
+            return;
+          }
+
+          accumulator.discard();
+          result.completeExceptionally(ex);
+        });
+  }
+
+  /**
+   * @param commit run once the chunk and every earlier one completed, {@code null} when there's
+   *     nothing to commit.
+   */
+  record Chunk<A>(Stream<A> records, Supplier<CompletableFuture<Void>> commit) {
+    static <A> Chunk<A> of(Stream<A> records) {
+      return new Chunk<>(records, null);
+    }
+  }
+
+  /**
+   * @param chunks the chunks of the source, only the iterator is kept so the chunks already
+   *     processed can be collected.
+   * @param onExhausted run once every chunk has been processed and committed.
+   */
+  record Source<A>(Iterator<Chunk<A>> chunks, Supplier<CompletableFuture<Void>> onExhausted) {}
+
+  private record Completed<A>(Supplier<CompletableFuture<Void>> commit, Stream<A> records) {}
+}
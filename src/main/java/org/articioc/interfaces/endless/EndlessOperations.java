@@ -7,8 +7,10 @@ import org.articioc.Articioc;
 import org.articioc.StepOptions;
 import org.articioc.base.Leaf;
 import org.articioc.base.Step;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.interfaces.Provider;
 import org.articioc.base.providers.EmptyProvider;
+import org.articioc.base.utils.Futures;
 import org.articioc.interfaces.manyTo.ManyToOperations;
 
 public interface EndlessOperations<E, A extends Leaf<M>, M> extends ManyToOperations<E, A, M> {
@@ -43,6 +45,57 @@ public interface EndlessOperations<E, A extends Leaf<M>, M> extends ManyToOperat
       EndlessManyToMany<A, M> mapToEndless,
       Function<Articioc.Builder<A, M>, Articioc.Builder<A, M>> pipelineDefinition,
       StepOptions<A, M> options) {
+    return this.addEndlessLoop(
+        records -> CompletableFuture.completedFuture(new EndlessLoop.Source<>(
+            mapToEndless.apply(records).map(EndlessLoop.Chunk::of).iterator(),
+            () -> CompletableFuture.completedFuture(null))),
+        pipelineDefinition,
+        options);
+  }
+
+  default E addEndless(
+      ResumableEndless<A, M> source,
+      CursorStore cursors,
+      Function<Articioc.Builder<A, M>, Articioc.Builder<A, M>> pipelineDefinition) {
+    return this.addEndless(source, cursors, pipelineDefinition, new StepOptions<>());
+  }
+
+  /**
+   * Like {@link #addEndless(EndlessOneToMany, Function, StepOptions)}, but the cursor of each chunk
+   * is saved to {@code cursors} once processed, by the key of the record that started the source.
+   * When the step runs again for a record with the same key, the source resumes after the saved
+   * cursor. Cursors are cleared once every source of the step is exhausted.
+   */
+  default E addEndless(
+      ResumableEndless<A, M> source,
+      CursorStore cursors,
+      Function<Articioc.Builder<A, M>, Articioc.Builder<A, M>> pipelineDefinition,
+      StepOptions<A, M> options) {
+    Function<Stream<A>, CompletableFuture<EndlessLoop.Source<A>>> resume = records -> {
+      var inputs = records.toList();
+
+      return Futures.collect(inputs.map(input -> cursors.load(input.key())))
+          .thenApply(saved -> new EndlessLoop.Source<>(
+              inputs.toStream()
+                  .zip(saved)
+                  .flatMap(started -> source
+                      .from(started._1(), started._2().orElse(null))
+                      .map(chunk -> new EndlessLoop.Chunk<>(
+                          chunk.records(),
+                          () -> cursors.save(started._1().key(), chunk.cursor()))))
+                  .iterator(),
+              () -> CompletableFuture.allOf(inputs
+                  .map(input -> cursors.clear(input.key()))
+                  .toJavaArray(CompletableFuture[]::new))));
+    };
+
+    return this.addEndlessLoop(resume, pipelineDefinition, options);
+  }
+
+  private E addEndlessLoop(
+      Function<Stream<A>, CompletableFuture<EndlessLoop.Source<A>>> sourceOf,
+      Function<Articioc.Builder<A, M>, Articioc.Builder<A, M>> pipelineDefinition,
+      StepOptions<A, M> options) {
     Step step = options.getEndless().map(StepOptions.EndlessOptions::step).orElse(Step.ENDLESS);
 
     Provider<A> provider = options
@@ -53,29 +106,53 @@ public interface EndlessOperations<E, A extends Leaf<M>, M> extends ManyToOperat
     boolean shouldCollect =
         options.getEndless().map(StepOptions.EndlessOptions::shouldCollect).orElse(true);
 
-    var builder = new Articioc.Builder<>(
-        provider, () -> CompletableFuture.completedFuture(Stream.of()), step);
-    var pipeline = pipelineDefinition.apply(builder).end().pipeline(provider);
+    EndlessCollector<A> collector = options
+        .getEndless()
+        .map(StepOptions.EndlessOptions::collector)
+        .orElseGet(() -> shouldCollect ? EndlessCollector.all() : EndlessCollector.none());
 
-    Function<Stream<A>, CompletableFuture<Stream<A>>> elaborateChunkByChunk =
-        mapToEndless.andThen(chunk -> {
-          var previous = chunk.iterator();
-          var collector = Stream.<A>of();
+    int concurrency =
+        options.getEndless().map(StepOptions.EndlessOptions::concurrency).orElse(1);
 
-          while (previous.hasNext()) {
-            Stream<A> next = previous.next();
-            var input = CompletableFuture.completedFuture(next.map(e -> (A) e.setStep(step)));
+    boolean preserveOrder =
+        options.getEndless().map(StepOptions.EndlessOptions::preserveOrder).orElse(true);
 
-            var chuckResult = pipeline.apply(input).join();
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("Concurrency must be greater than 0.");
+    }
 
-            if (shouldCollect) {
-              collector = Stream.concat(collector, chuckResult);
-            }
-          }
+    var executionContext = getExecutionContext();
+    if (concurrency > 1 && executionContext == ExecutionContext.inline()) {
+      throw new IllegalArgumentException(
+          "Concurrency greater than 1 needs an execution context, chunks would run one at a time.");
+    }
 
-          return CompletableFuture.completedFuture(collector);
-        });
+    var builder = new Articioc.Builder<>(
+            provider, () -> CompletableFuture.completedFuture(Stream.of()), step)
+        .executionContext(executionContext);
+    var pipeline = pipelineDefinition.apply(builder).end().pipeline(provider);
+
+    /* Up to `concurrency` chunks run at once: the next chunk is taken from the source only when
+     * one completes. After a failure no other chunk is started. */
+    Function<Stream<A>, CompletableFuture<Stream<A>>> elaborateChunkByChunk =
+        records -> sourceOf.apply(records).thenCompose(source -> new EndlessLoop<A>(
+                source.chunks(),
+                chunk -> pipeline.apply(
+                    CompletableFuture.completedFuture(chunk.map(e -> (A) e.setStep(step)))),
+                executionContext,
+                collector.open(),
+                preserveOrder,
+                source.onExhausted())
+            .start(concurrency));
+
+    /* Mapping the records to their endless source may read from it, so it runs on the execution
+     * context rather than on the thread that completed the previous step. */
+    return this.addStepImplementation(
+        records -> executionContext.composeAsync(() -> elaborateChunkByChunk.apply(records)));
+  }
 
-    return this.addStepImplementation(elaborateChunkByChunk);
+  /** Where endless steps run, on the thread that completed the previous step by default. */
+  default ExecutionContext getExecutionContext() {
+    return ExecutionContext.inline();
   }
 }
@@ -0,0 +1,128 @@
+package org.articioc.interfaces.endless;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CursorStore} keeping each cursor in its own file of a local directory.
+ *
+ * <p>A cursor is written to a temporary file that then replaces the previous one atomically, so a
+ * crash while saving leaves either the old or the new cursor. Files are read and written on the
+ * calling thread.
+ *
+ * <p>Files are named after the id. Ids too long for a file name are hashed instead, and their file
+ * starts with a line holding the id, so that it can be recovered and told apart on collisions.
+ */
+public class FileCursorStore implements CursorStore {
+
+  /* Longest name kept as the encoding of the id, well below the 255 bytes file systems allow. */
+  private static final int MAX_ENCODED_LENGTH = 128;
+
+  private final Path directory;
+
+  public FileCursorStore(Path directory) {
+    this.directory = Objects.requireNonNull(directory);
+  }
+
+  @Override
+  public CompletableFuture<Optional<String>> load(String id) {
+    try {
+      return CompletableFuture.completedFuture(read(locationOf(id)));
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> save(String id, String cursor) {
+    try {
+      Files.createDirectories(directory);
+
+      var location = locationOf(id);
+      var temporary = Files.createTempFile(directory, "cursor-", ".tmp");
+      Files.writeString(temporary, location.contentOf(cursor), StandardCharsets.UTF_8);
+      Files.move(
+          temporary,
+          location.file(),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+
+      return CompletableFuture.completedFuture(null);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> clear(String id) {
+    try {
+      var location = locationOf(id);
+      if (location.header() == null || read(location).isPresent()) {
+        Files.deleteIfExists(location.file());
+      }
+
+      return CompletableFuture.completedFuture(null);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static Optional<String> read(Location location) throws IOException {
+    if (!Files.exists(location.file())) return Optional.empty();
+
+    return location.cursorOf(Files.readString(location.file(), StandardCharsets.UTF_8));
+  }
+
+  /* Ids can hold any character, their encoding is a valid file name. */
+  private Location locationOf(String id) {
+    var encoded = Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(id.getBytes(StandardCharsets.UTF_8));
+
+    if (encoded.length() <= MAX_ENCODED_LENGTH) {
+      return new Location(directory.resolve(encoded + ".cursor"), null);
+    }
+
+    return new Location(directory.resolve(sha256(id) + ".cursor"), encoded);
+  }
+
+  private static String sha256(String id) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(id.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by every Java platform.", e);
+    }
+  }
+
+  /**
+   * @param header first line of the file, the encoded id, when the file is named after its hash.
+   *     {@code null} when the name is the encoded id itself.
+   */
+  private record Location(Path file, String header) {
+
+    String contentOf(String cursor) {
+      return header == null ? cursor : header + "\n" + cursor;
+    }
+
+    /* A file of another id with the same hash holds no cursor for this one. */
+    Optional<String> cursorOf(String content) {
+      if (header == null) return Optional.of(content);
+
+      var newLine = content.indexOf('\n');
+      if (newLine < 0 || !content.substring(0, newLine).equals(header)) return Optional.empty();
+
+      return Optional.of(content.substring(newLine + 1));
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.articioc.interfaces.endless;
+
+import io.vavr.collection.Stream;
+import org.articioc.base.Leaf;
+
+/**
+ * Endless source that can restart from where a previous run stopped.
+ *
+ * <p>Each chunk carries the cursor reached once it has been processed. The engine saves it to a
+ * {@link CursorStore} after the chunk and every earlier one completed; when the step runs again for
+ * the same record, the source is asked for the chunks after the last saved cursor. With a
+ * concurrency of 1, at most one chunk is processed twice after a restart.
+ */
+@FunctionalInterface
+public interface ResumableEndless<A extends Leaf<M>, M> {
+
+  /**
+   * @param cursor the last saved cursor, {@code null} when the source starts from the beginning.
+   */
+  Stream<Chunk<A>> from(A input, String cursor);
+
+  record Chunk<A>(Stream<A> records, String cursor) {}
+
+  /**
+   * Uses the index of the chunks as cursor. On resume the chunks already processed are still
+   * produced by {@code source}, then dropped, so it must produce them in the same order each time.
+   */
+  static <A extends Leaf<M>, M> ResumableEndless<A, M> byIndex(
+      EndlessOperations.EndlessOneToMany<A, M> source) {
+    return (input, cursor) -> {
+      var start = cursor == null ? 0 : Integer.parseInt(cursor) + 1;
+
+      return source
+          .apply(input)
+          .zipWithIndex()
+          .drop(start)
+          .map(chunk -> new Chunk<>(chunk._1(), String.valueOf(chunk._2())));
+    };
+  }
+}
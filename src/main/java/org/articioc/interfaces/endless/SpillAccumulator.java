@@ -0,0 +1,150 @@
+package org.articioc.interfaces.endless;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Stream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Accumulator of {@link EndlessCollector#spillToDisk}, one line of {@code file} per record.
+ *
+ * <p>The result decodes the lines as it's traversed. The file is deleted once read to the end, or
+ * once the result is no longer reachable, and as soon as writing to it fails or the step is
+ * discarded.
+ */
+final class SpillAccumulator<A> implements EndlessCollector.Accumulator<A> {
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final Path file;
+  private final BufferedWriter writer;
+  private final Function<A, String> encode;
+  private final Function<String, A> decode;
+
+  SpillAccumulator(Path file, Function<A, String> encode, Function<String, A> decode)
+      throws IOException {
+    this.file = file;
+    this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    this.encode = encode;
+    this.decode = decode;
+  }
+
+  @Override
+  public CompletableFuture<Void> add(Stream<A> records) {
+    try {
+      for (A record : records) {
+        writer.write(encode.apply(record));
+        writer.newLine();
+      }
+
+      return CompletableFuture.completedFuture(null);
+    } catch (IOException | RuntimeException e) {
+      discard();
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Stream<A>> result() {
+    try {
+      writer.close();
+
+      var lines = new Lines<>(Files.newBufferedReader(file, StandardCharsets.UTF_8), file, decode);
+      return CompletableFuture.completedFuture(Stream.ofAll(lines));
+    } catch (IOException | RuntimeException e) {
+      discard();
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /* Closing the writer again has no effect. */
+  @Override
+  public void discard() {
+    try {
+      writer.close();
+    } catch (IOException ignored) {
+      /* The file is deleted anyway. */
+    }
+
+    delete(file);
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      /* Left in the directory, like a file of a JVM that crashed. */
+    }
+  }
+
+  /**
+   * Decodes the file a line at a time. The stream built on it asks for the next record only when
+   * its tail is traversed, so records already passed can be collected.
+   */
+  private static final class Lines<A> implements Iterator<A> {
+    private final BufferedReader reader;
+    private final Function<String, A> decode;
+    private final Cleaner.Cleanable cleanable;
+    private String next;
+    private boolean done;
+
+    Lines(BufferedReader reader, Path file, Function<String, A> decode) {
+      this.reader = reader;
+      this.decode = decode;
+      this.cleanable = CLEANER.register(this, () -> {
+        try {
+          reader.close();
+        } catch (IOException ignored) {
+          /* The file is deleted anyway. */
+        }
+
+        delete(file);
+      });
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) return true;
+      if (done) return false;
+
+      try {
+        next = reader.readLine();
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+
+      if (next == null) close();
+      return next != null;
+    }
+
+    @Override
+    public A next() {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      var line = next;
+      next = null;
+
+      try {
+        return decode.apply(line);
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+
+    private void close() {
+      this.done = true;
+      cleanable.clean();
+    }
+  }
+}
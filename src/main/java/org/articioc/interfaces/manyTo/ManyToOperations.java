@@ -1,9 +1,15 @@
 package org.articioc.interfaces.manyTo;
 
 import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
+import org.articioc.StepOptions;
 import org.articioc.base.Leaf;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.interfaces.Outcome;
 
 public interface ManyToOperations<E, A extends Leaf<M>, M> {
   default E addStep(ManyToMany<A> step) {
@@ -14,5 +20,81 @@ public interface ManyToOperations<E, A extends Leaf<M>, M> {
     return this.addStepImplementation(step);
   }
 
+  default E addStep(ManyToOutcome<A> step) {
+    return this.addOutcomeStepImplementation(step.andThen(CompletableFuture::completedFuture));
+  }
+
+  default E addStep(ManyToOutcomeAsync<A> step) {
+    return this.addOutcomeStepImplementation(step);
+  }
+
+  default E addParallelStep(ManyToMany<A> step) {
+    return this.addParallelStep(step, new StepOptions<>());
+  }
+
+  /**
+   * Splits the records in chunks, applies the step to each chunk in parallel and merges the
+   * results. Meant for CPU-bound steps on large batches whose result doesn't depend on seeing every
+   * record at once: parsing, scoring, hashing. Batches not larger than a chunk run on the calling
+   * thread. See {@link StepOptions.ParallelOptions}.
+   */
+  default E addParallelStep(ManyToMany<A> step, StepOptions<A, M> options) {
+    var parallel = options.getParallel();
+
+    Integer chunkSize = parallel.map(StepOptions.ParallelOptions::chunkSize).orElse(null);
+    boolean preserveOrder =
+        parallel.map(StepOptions.ParallelOptions::preserveOrder).orElse(true);
+    ExecutionContext executionContext = parallel
+        .map(StepOptions.ParallelOptions::executionContext)
+        .orElseGet(ExecutionContext::commonPool);
+
+    if (chunkSize != null && chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be greater than 0.");
+    }
+
+    return this.addStepImplementation(records -> {
+      var input = records.toJavaList();
+      var size = chunkSize != null
+          ? chunkSize
+          : Math.ceilDiv(input.size(), executionContext.parallelism() * 4);
+
+      if (input.size() <= size) return CompletableFuture.completedFuture(step.apply(records));
+
+      /* Steps usually return lazy streams: each chunk is materialized where it runs. */
+      var chunks = new ArrayList<CompletableFuture<List<A>>>();
+      for (int from = 0; from < input.size(); from += size) {
+        var chunk = input.subList(from, Math.min(from + size, input.size()));
+        chunks.add(executionContext.supplyAsync(
+            () -> step.apply(Stream.ofAll(chunk)).toJavaList()));
+      }
+
+      return preserveOrder ? mergeInOrder(chunks) : mergeAsCompleted(chunks);
+    });
+  }
+
+  private static <A> CompletableFuture<Stream<A>> mergeInOrder(
+      List<CompletableFuture<List<A>>> chunks) {
+    return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+        .thenApply(ignore -> {
+          var merged = new ArrayList<A>();
+          chunks.forEach(chunk -> merged.addAll(chunk.join()));
+
+          return Stream.ofAll(merged);
+        });
+  }
+
+  private static <A> CompletableFuture<Stream<A>> mergeAsCompleted(
+      List<CompletableFuture<List<A>>> chunks) {
+    var merged = new ConcurrentLinkedQueue<A>();
+    var collected = chunks.stream()
+        .map(chunk -> chunk.thenAccept(merged::addAll))
+        .toArray(CompletableFuture[]::new);
+
+    return CompletableFuture.allOf(collected).thenApply(ignore -> Stream.ofAll(merged));
+  }
+
   E addStepImplementation(Function<Stream<A>, CompletableFuture<Stream<A>>> step);
+
+  /** Same as {@link #addStepImplementation(Function)}, for steps that can skip the next ones. */
+  E addOutcomeStepImplementation(Function<Stream<A>, CompletableFuture<Outcome<A>>> step);
 }
@@ -0,0 +1,9 @@
+package org.articioc.interfaces.manyTo;
+
+import io.vavr.collection.Stream;
+import java.util.function.Function;
+import org.articioc.interfaces.Outcome;
+
+public interface ManyToOutcome<A> extends Function<Stream<A>, Outcome<A>> {
+  Outcome<A> apply(Stream<A> input);
+}
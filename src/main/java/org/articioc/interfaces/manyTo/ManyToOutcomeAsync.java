@@ -0,0 +1,11 @@
+package org.articioc.interfaces.manyTo;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.articioc.interfaces.Outcome;
+
+public interface ManyToOutcomeAsync<A>
+    extends Function<Stream<A>, CompletableFuture<Outcome<A>>> {
+  CompletableFuture<Outcome<A>> apply(Stream<A> input);
+}
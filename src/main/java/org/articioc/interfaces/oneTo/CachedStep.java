@@ -0,0 +1,50 @@
+package org.articioc.interfaces.oneTo;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.articioc.StepOptions.CacheOptions;
+import org.articioc.base.Leaf;
+import org.articioc.base.utils.StepCache;
+
+/**
+ * Memoizes a one-to-one step in the {@link StepCache} of its {@link CacheOptions}.
+ *
+ * <p>Only successful results are kept. Records that miss while another one with the same key is
+ * running call the step as well.
+ */
+final class CachedStep<A extends Leaf<M>, M> implements Function<A, CompletableFuture<A>> {
+
+  private final Function<A, CompletableFuture<A>> step;
+  private final StepCache<String, A> cache;
+  private final Function<A, String> key;
+  private final UnaryOperator<A> copy;
+
+  CachedStep(Function<A, CompletableFuture<A>> step, CacheOptions<A, M> options) {
+    this.step = step;
+    this.cache = Objects.requireNonNull(options.cache(), "Cache can't be null.");
+    this.key = Optional.ofNullable(options.key()).orElse(Leaf::key);
+    this.copy = Objects.requireNonNull(options.copy(), "Copy can't be null.");
+  }
+
+  @Override
+  public CompletableFuture<A> apply(A input) {
+    var key = this.key.apply(input);
+
+    var cached = cache.get(key);
+    if (cached.isPresent()) {
+      var hit = copy.apply(cached.get());
+      hit.setMetadata(input.getMetadata());
+
+      return CompletableFuture.completedFuture(hit);
+    }
+
+    /* The next steps may change the result, the cache keeps its own copy. */
+    return step.apply(input).thenApply(result -> {
+      cache.put(key, copy.apply(result));
+      return result;
+    });
+  }
+}
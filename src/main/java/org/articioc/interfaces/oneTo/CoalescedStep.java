@@ -0,0 +1,56 @@
+package org.articioc.interfaces.oneTo;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.articioc.StepOptions.SingleFlightOptions;
+import org.articioc.base.Leaf;
+import org.articioc.base.utils.SingleFlight;
+import org.articioc.metrics.PipelineMetrics.Event;
+
+/**
+ * Runs an asynchronous step once for the records with the same key that reach it while it's
+ * running, see {@link SingleFlight}. The record that started the call gets its result, the others
+ * get a copy of the records in it, carrying their own metadata.
+ */
+final class CoalescedStep<A extends Leaf<M>, M, R> implements Function<A, CompletableFuture<R>> {
+
+  private final Function<A, CompletableFuture<R>> step;
+  private final Function<A, String> key;
+  private final UnaryOperator<A> copy;
+  private final BiFunction<R, UnaryOperator<A>, R> mapRecords;
+  private final Consumer<Event> events;
+  private final SingleFlight<String, R> flights = new SingleFlight<>();
+
+  /**
+   * @param mapRecords applies the given function to each record of a result.
+   */
+  CoalescedStep(
+      Function<A, CompletableFuture<R>> step,
+      SingleFlightOptions<A, M> options,
+      BiFunction<R, UnaryOperator<A>, R> mapRecords,
+      Consumer<Event> events) {
+    this.step = step;
+    this.key = Optional.ofNullable(options.key()).orElse(Leaf::key);
+    this.copy = Objects.requireNonNull(options.copy(), "Copy can't be null.");
+    this.mapRecords = mapRecords;
+    this.events = events;
+  }
+
+  @Override
+  public CompletableFuture<R> apply(A input) {
+    var flight = flights.execute(key.apply(input), () -> step.apply(input));
+    if (flight.leader()) return flight.result();
+
+    events.accept(Event.COALESCED);
+    return flight.result().thenApply(result -> mapRecords.apply(result, record -> {
+      var shared = copy.apply(record);
+      shared.setMetadata(input.getMetadata());
+      return shared;
+    }));
+  }
+}
@@ -1,10 +1,16 @@
 package org.articioc.interfaces.oneTo;
 
 import io.vavr.collection.Stream;
+import io.vavr.control.Either;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.articioc.StepOptions;
 import org.articioc.base.Leaf;
 import org.articioc.base.utils.Futures;
+import org.articioc.metrics.PipelineMetrics;
 
 public interface OneToOperations<E, A extends Leaf<M>, M> {
   default E addStep(OneToOne<A> step) {
@@ -16,6 +22,32 @@ public interface OneToOperations<E, A extends Leaf<M>, M> {
     return this.addStepOnSingleElement(e -> step.apply(e).thenApply(Stream::of));
   }
 
+  /**
+   * Same as {@link #addStep(OneToOne)}, with the results memoized as defined by the {@link
+   * StepOptions.CacheOptions} of the options.
+   */
+  default E addStep(OneToOne<A> step, StepOptions<A, M> options) {
+    Function<A, CompletableFuture<A>> async = step.andThen(CompletableFuture::completedFuture);
+
+    return this.addStepOnSingleElement(
+        cached(async, options).andThen(e -> e.thenApply(Stream::of)));
+  }
+
+  /**
+   * Same as {@link #addStep(OneToOneAsync)}, bounded by the timeout and hedged as defined by the
+   * {@link StepOptions.TimeoutOptions} of the options, and memoized as defined by its {@link
+   * StepOptions.CacheOptions}: hits don't call the step, nor wait for its timeout. Records missing
+   * the cache while a call with their key is running share it, as defined by its {@link
+   * StepOptions.SingleFlightOptions}.
+   */
+  default E addStep(OneToOneAsync<A> step, StepOptions<A, M> options) {
+    var coalesced =
+        coalesced(timed(step, options), options, (A r, UnaryOperator<A> f) -> f.apply(r));
+
+    return this.addStepOnSingleElement(
+        cached(coalesced, options).andThen(e -> e.thenApply(Stream::of)));
+  }
+
   default E addStep(OneToMany<A> step) {
     return this.addStepOnSingleElement(step.andThen(CompletableFuture::completedFuture));
   }
@@ -24,6 +56,16 @@ public interface OneToOperations<E, A extends Leaf<M>, M> {
     return this.addStepOnSingleElement(step);
   }
 
+  /**
+   * Same as {@link #addStep(OneToManyAsync)}, with the timeout and the hedging of the {@link
+   * StepOptions.TimeoutOptions} of the options, and the records with the same key sharing a running
+   * call as defined by its {@link StepOptions.SingleFlightOptions}.
+   */
+  default E addStep(OneToManyAsync<A> step, StepOptions<A, M> options) {
+    return this.addStepOnSingleElement(
+        coalesced(timed(step, options), options, (Stream<A> r, UnaryOperator<A> f) -> r.map(f)));
+  }
+
   default E addStep(OneToEither<Exception, A> step) {
     return this.addStepOnSingleElement(step.andThen(e -> e.fold(ex -> Stream.<A>of(), Stream::of))
         .andThen(CompletableFuture::completedFuture));
@@ -34,6 +76,19 @@ public interface OneToOperations<E, A extends Leaf<M>, M> {
         step.andThen(e -> e.thenApply(a -> a.fold(ex -> Stream.of(), Stream::of))));
   }
 
+  /**
+   * Same as {@link #addStep(OneToEitherAsync)}, with the timeout and the hedging of the {@link
+   * StepOptions.TimeoutOptions} of the options, and the records with the same key sharing a running
+   * call as defined by its {@link StepOptions.SingleFlightOptions}.
+   */
+  default E addStep(OneToEitherAsync<Exception, A> step, StepOptions<A, M> options) {
+    var coalesced = coalesced(
+        timed(step, options), options, (Either<Exception, A> r, UnaryOperator<A> f) -> r.map(f));
+
+    return this.addStepOnSingleElement(
+        coalesced.andThen(e -> e.thenApply(a -> a.fold(ex -> Stream.of(), Stream::of))));
+  }
+
   default E addStep(OneToEitherWithStream<Exception, A> step) {
     return this.addStepOnSingleElement(
         step.andThen(e -> e.fold(ex -> Stream.<A>of(), Function.identity()))
@@ -46,7 +101,48 @@ public interface OneToOperations<E, A extends Leaf<M>, M> {
   }
 
   default E addStep(OneToStreamCompletableFuture<A> step) {
-    return this.addStepOnSingleElement(a -> Futures.whenAllAsStream(step.apply(a)));
+    return this.addStepOnSingleElement(a -> Futures.collect(step.apply(a)));
+  }
+
+  /**
+   * Same as {@link #addStep(OneToStreamCompletableFuture)}, the timeout and the hedging of the
+   * {@link StepOptions.TimeoutOptions} apply to all the futures of a record: a second attempt calls
+   * the step again, on a copy of the record when the options have a copy function.
+   */
+  default E addStep(OneToStreamCompletableFuture<A> step, StepOptions<A, M> options) {
+    Function<A, CompletableFuture<Stream<A>>> collected = a -> Futures.collect(step.apply(a));
+
+    return this.addStepOnSingleElement(timed(collected, options));
+  }
+
+  private <R> Function<A, CompletableFuture<R>> timed(
+      Function<A, CompletableFuture<R>> step, StepOptions<A, M> options) {
+    return options.getTimeout()
+        .<Function<A, CompletableFuture<R>>>map(
+            t -> new TimedStep<>(step, t, t.copy(), checkpointEvents()))
+        .orElse(step);
+  }
+
+  private Function<A, CompletableFuture<A>> cached(
+      Function<A, CompletableFuture<A>> step, StepOptions<A, M> options) {
+    return options.getCache()
+        .<Function<A, CompletableFuture<A>>>map(c -> new CachedStep<>(step, c))
+        .orElse(step);
+  }
+
+  private <R> Function<A, CompletableFuture<R>> coalesced(
+      Function<A, CompletableFuture<R>> step,
+      StepOptions<A, M> options,
+      BiFunction<R, UnaryOperator<A>, R> mapRecords) {
+    return options.getSingleFlight()
+        .<Function<A, CompletableFuture<R>>>map(
+            s -> new CoalescedStep<>(step, s, mapRecords, checkpointEvents()))
+        .orElse(step);
+  }
+
+  /** Reports the events of the steps being added, on the current checkpoint. */
+  default Consumer<PipelineMetrics.Event> checkpointEvents() {
+    return event -> {};
   }
 
   E addStepOnSingleElement(Function<A, CompletableFuture<Stream<A>>> step);
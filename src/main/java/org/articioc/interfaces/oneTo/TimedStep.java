@@ -0,0 +1,182 @@
+package org.articioc.interfaces.oneTo;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.articioc.StepOptions.TimeoutOptions;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.exceptions.StepTimeoutException;
+import org.articioc.metrics.LatencyHistogram;
+import org.articioc.metrics.PipelineMetrics.Event;
+
+/**
+ * Runs an asynchronous step with the timeout and the hedging of its {@link TimeoutOptions}.
+ *
+ * <p>Timers are scheduled on a single daemon thread and removed as soon as the record completes,
+ * what they trigger runs on the execution context of the options. A failed attempt only fails the
+ * record when no other attempt is running: the hedge is not a retry, it isn't started once the
+ * first attempt failed. Attempts that lost or timed out are cancelled but not interrupted, with a
+ * copy function each attempt gets its own copy of the record.
+ */
+final class TimedStep<A, R> implements Function<A, CompletableFuture<R>> {
+
+  private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+  /* Latencies needed before hedging on a percentile, and how often the percentile is refreshed. */
+  private static final int MIN_SAMPLES = 100;
+  private static final int REFRESH_EVERY = 64;
+
+  private final Function<A, CompletableFuture<R>> step;
+  private final Duration timeout;
+  private final Duration hedgeAfter;
+  private final Double hedgePercentile;
+  private final Executor executor;
+  private final UnaryOperator<A> copy;
+  private final Consumer<Event> events;
+
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final AtomicLong samples = new AtomicLong();
+  private volatile long percentileNanos = -1;
+
+  TimedStep(
+      Function<A, CompletableFuture<R>> step,
+      TimeoutOptions<?, ?> options,
+      UnaryOperator<A> copy,
+      Consumer<Event> events) {
+    this.step = step;
+    this.timeout = options.timeout();
+    this.hedgeAfter = options.hedgeAfter();
+    this.hedgePercentile = options.hedgePercentile();
+    this.executor = Optional.ofNullable(options.executionContext())
+        .orElseGet(ExecutionContext::commonPool);
+    this.copy = Optional.ofNullable(copy).orElseGet(UnaryOperator::identity);
+    this.events = events;
+
+    if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+      throw new IllegalArgumentException("Timeout must be greater than 0.");
+    }
+    if (hedgePercentile != null && (hedgePercentile <= 0 || hedgePercentile > 1)) {
+      throw new IllegalArgumentException("Hedge percentile must be between 0 and 1.");
+    }
+  }
+
+  private static ScheduledThreadPoolExecutor timer() {
+    var timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      var thread = new Thread(runnable, "articioc-step-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer.setRemoveOnCancelPolicy(true);
+
+    return timer;
+  }
+
+  @Override
+  public CompletableFuture<R> apply(A input) {
+    var execution = new Execution(input);
+    execution.start();
+
+    return execution.result;
+  }
+
+  /* Delay of the second attempt in nanos, negative when there's none. */
+  private long hedgeDelayNanos() {
+    if (hedgePercentile != null && samples.get() >= MIN_SAMPLES) return percentileNanos;
+
+    return hedgeAfter == null ? -1 : hedgeAfter.toNanos();
+  }
+
+  private void recordLatency(long nanos) {
+    if (hedgePercentile == null) return;
+
+    latencies.record(nanos);
+    var count = samples.incrementAndGet();
+    if (count >= MIN_SAMPLES && (count - MIN_SAMPLES) % REFRESH_EVERY == 0) {
+      this.percentileNanos = LatencyHistogram.percentile(latencies.snapshot(), hedgePercentile);
+    }
+  }
+
+  private final class Execution {
+    private final A input;
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile boolean hedgePending;
+
+    Execution(A input) {
+      this.input = input;
+    }
+
+    void start() {
+      var hedgeDelay = hedgeDelayNanos();
+      this.hedgePending = hedgeDelay >= 0;
+
+      attempt();
+      if (result.isDone()) return;
+
+      var timeoutTask = timeout == null ? null : schedule(timeout.toNanos(), this::timeOut);
+      var hedgeTask = hedgeDelay < 0 ? null : schedule(hedgeDelay, this::hedge);
+
+      result.whenComplete((value, ex) -> {
+        if (timeoutTask != null) timeoutTask.cancel(false);
+        if (hedgeTask != null) hedgeTask.cancel(false);
+      });
+    }
+
+    private ScheduledFuture<?> schedule(long delayNanos, Runnable task) {
+      return TIMER.schedule(() -> executor.execute(task), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void attempt() {
+      running.incrementAndGet();
+      var startedAt = System.nanoTime();
+
+      CompletableFuture<R> attempt;
+      try {
+        attempt = step.apply(copy.apply(input));
+      } catch (RuntimeException ex) {
+        attempt = CompletableFuture.failedFuture(ex);
+      }
+
+      var current = attempt;
+      current.whenComplete((value, ex) -> completed(value, ex, System.nanoTime() - startedAt));
+      result.whenComplete((value, ex) -> current.cancel(false));
+    }
+
+    private void completed(R value, Throwable ex, long durationNanos) {
+      var stillRunning = running.decrementAndGet() > 0;
+
+      if (ex == null) {
+        recordLatency(durationNanos);
+        result.complete(value);
+      } else if (!stillRunning) {
+        this.hedgePending = false;
+        result.completeExceptionally(ex);
+      }
+    }
+
+    private void hedge() {
+      if (result.isDone() || !hedgePending) return;
+
+      this.hedgePending = false;
+      events.accept(Event.HEDGED);
+      attempt();
+    }
+
+    /* Reported first: completing the record runs the rest of the pipeline. */
+    private void timeOut() {
+      if (result.isDone()) return;
+
+      events.accept(Event.TIMED_OUT);
+      result.completeExceptionally(new StepTimeoutException(timeout));
+    }
+  }
+}
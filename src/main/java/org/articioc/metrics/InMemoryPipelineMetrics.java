@@ -0,0 +1,172 @@
+package org.articioc.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.articioc.base.Step;
+import org.articioc.base.StepRegistry;
+
+/**
+ * {@link PipelineMetrics} kept in memory, per step and operation.
+ *
+ * <p>Recording never takes a lock: metrics are found by {@link Step#id()} in an array, counters are
+ * {@link LongAdder}s and latencies go into a lock-free histogram. Only the first event of a step
+ * takes a lock, to add its metrics. See {@link #snapshot()} for throughput and percentiles.
+ */
+public class InMemoryPipelineMetrics implements PipelineMetrics {
+
+  /* Copied on write, so a step found in the array is fully initialized. */
+  private volatile StepMetrics[] steps = new StepMetrics[0];
+  private final long createdAt = System.nanoTime();
+
+  @Override
+  public void started(Operation operation, Step step, int records) {
+    of(step).operation(operation).inFlight.increment();
+  }
+
+  @Override
+  public void completed(
+      Operation operation, Step step, int records, long durationNanos, Throwable failure) {
+    var metrics = of(step).operation(operation);
+
+    metrics.inFlight.decrement();
+    metrics.executions.increment();
+    metrics.records.add(records);
+    if (failure != null) metrics.failures.increment();
+    metrics.latency.record(durationNanos);
+  }
+
+  @Override
+  public void event(Event event, Step step, int records) {
+    of(step).events.get(event).add(records);
+  }
+
+  /** Snapshot of the metrics of each step, by step name. */
+  public Map<String, StepSnapshot> snapshot() {
+    var elapsedSeconds = Math.max(1, System.nanoTime() - createdAt) / 1e9;
+
+    var snapshot = new TreeMap<String, StepSnapshot>();
+    for (var metrics : steps) {
+      if (metrics != null) snapshot.put(metrics.name, metrics.snapshot(elapsedSeconds));
+    }
+
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  private StepMetrics of(Step step) {
+    var current = steps;
+    var id = idOf(step);
+    if (id < current.length && current[id] != null) return current[id];
+
+    return add(step);
+  }
+
+  private synchronized StepMetrics add(Step step) {
+    var id = idOf(step);
+    if (id < steps.length && steps[id] != null) return steps[id];
+
+    var copy = Arrays.copyOf(steps, Math.max(id + 1, StepRegistry.size()));
+    copy[id] = new StepMetrics(step.getName());
+    steps = copy;
+
+    return copy[id];
+  }
+
+  /* Checkpoints are declared, so their steps are interned anyway. */
+  private static int idOf(Step step) {
+    var id = step.id();
+    return id >= 0 ? id : StepRegistry.idOf(step.getName());
+  }
+
+  private static final class StepMetrics {
+    private final String name;
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+    private final Map<Event, LongAdder> events = new EnumMap<>(Event.class);
+
+    /* Both maps are filled before the instance is published and only read afterwards. */
+    private StepMetrics(String name) {
+      this.name = name;
+      for (var operation : Operation.values()) {
+        operations.put(operation, new OperationMetrics());
+      }
+      for (var event : Event.values()) {
+        events.put(event, new LongAdder());
+      }
+    }
+
+    OperationMetrics operation(Operation operation) {
+      return operations.get(operation);
+    }
+
+    StepSnapshot snapshot(double elapsedSeconds) {
+      var operationSnapshots = new EnumMap<Operation, OperationSnapshot>(Operation.class);
+      operations.forEach((operation, metrics) -> {
+        if (metrics.executions.sum() > 0 || metrics.inFlight.sum() > 0) {
+          operationSnapshots.put(operation, metrics.snapshot(elapsedSeconds));
+        }
+      });
+
+      var eventCounts = new EnumMap<Event, Long>(Event.class);
+      events.forEach((event, count) -> eventCounts.put(event, count.sum()));
+
+      return new StepSnapshot(
+          Collections.unmodifiableMap(operationSnapshots), Collections.unmodifiableMap(eventCounts));
+    }
+  }
+
+  private static final class OperationMetrics {
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationSnapshot snapshot(double elapsedSeconds) {
+      var histogram = latency.snapshot();
+      var recordCount = records.sum();
+
+      return new OperationSnapshot(
+          executions.sum(),
+          recordCount,
+          failures.sum(),
+          inFlight.sum(),
+          recordCount / elapsedSeconds,
+          LatencyHistogram.percentile(histogram, 0.5),
+          LatencyHistogram.percentile(histogram, 0.9),
+          LatencyHistogram.percentile(histogram, 0.99),
+          LatencyHistogram.percentile(histogram, 1));
+    }
+  }
+
+  /**
+   * @param operations metrics of the operations performed on the step at least once.
+   * @param events number of records involved in each event.
+   */
+  public record StepSnapshot(
+      Map<Operation, OperationSnapshot> operations, Map<Event, Long> events) {}
+
+  /**
+   * @param executions operations completed.
+   * @param records records involved in the completed operations.
+   * @param failures operations that failed.
+   * @param inFlight operations currently running.
+   * @param recordsPerSecond records per second since the metrics were created.
+   * @param p50Nanos median latency.
+   * @param p90Nanos 90th percentile of latency.
+   * @param p99Nanos 99th percentile of latency.
+   * @param maxNanos highest latency, within the precision of the histogram.
+   */
+  public record OperationSnapshot(
+      long executions,
+      long records,
+      long failures,
+      long inFlight,
+      double recordsPerSecond,
+      long p50Nanos,
+      long p90Nanos,
+      long p99Nanos,
+      long maxNanos) {}
+}
@@ -0,0 +1,72 @@
+package org.articioc.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ *
+ * <p>Values below 16 have their own bucket, larger values are split in 8 buckets per power of two,
+ * so percentiles are reported with a relative error below 12.5%.
+ */
+public final class LatencyHistogram {
+
+  private static final int LINEAR = 16;
+  private static final int SUB_BUCKETS_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+  private static final int FIRST_EXPONENT = 4;
+  private static final int BUCKETS = LINEAR + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  public void record(long nanos) {
+    counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+  }
+
+  /** Takes a copy of the counts, percentiles are then computed on the copy. */
+  public long[] snapshot() {
+    var copy = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+    }
+
+    return copy;
+  }
+
+  /** Returns the upper bound of the bucket holding the given percentile, 0 when empty. */
+  public static long percentile(long[] snapshot, double percentile) {
+    long total = 0;
+    for (long count : snapshot) {
+      total += count;
+    }
+    if (total == 0) return 0;
+
+    var rank = Math.max(1, (long) Math.ceil(percentile * total));
+
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) return upperBoundOf(i);
+    }
+
+    return upperBoundOf(snapshot.length - 1);
+  }
+
+  static int indexOf(long value) {
+    if (value < LINEAR) return (int) value;
+
+    var exponent = 63 - Long.numberOfLeadingZeros(value);
+    var sub = (int) (value >>> (exponent - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+
+    return LINEAR + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + sub;
+  }
+
+  static long upperBoundOf(int index) {
+    if (index < LINEAR) return index;
+
+    var exponent = (index - LINEAR) / SUB_BUCKETS + FIRST_EXPONENT;
+    var sub = (index - LINEAR) % SUB_BUCKETS;
+    var width = 1L << (exponent - SUB_BUCKETS_BITS);
+
+    return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKETS_BITS)) + width - 1;
+  }
+}
@@ -0,0 +1,58 @@
+package org.articioc.metrics;
+
+import org.articioc.base.Step;
+
+/**
+ * Listener notified by the engine around the operations it performs on each checkpoint.
+ *
+ * <p>{@code step} is always the step of the checkpoint the records are being processed by, {@code
+ * records} the number of records involved in the operation. Callbacks are invoked on the threads
+ * running the pipeline, so implementations must be thread-safe and should not block.
+ */
+public interface PipelineMetrics {
+
+  enum Operation {
+    /** The steps of a checkpoint, including its error handlers. */
+    CHECKPOINT,
+    /** Writing the output of a checkpoint on the provider. */
+    WRITE,
+    /** Committing the records read from the provider. */
+    COMMIT,
+    /** Rolling back the records read from the provider. */
+    ROLLBACK
+  }
+
+  enum Event {
+    /** A step of the checkpoint failed. */
+    FAILED,
+    /** The error handlers of the checkpoint handled a failure. */
+    RECOVERED,
+    /**
+     * The steps of the checkpoint skipped the remaining ones, see {@link
+     * org.articioc.interfaces.Outcome}.
+     */
+    SKIPPED,
+    /**
+     * A step didn't complete within its timeout, see {@link
+     * org.articioc.StepOptions.TimeoutOptions}.
+     */
+    TIMED_OUT,
+    /** A second attempt of a slow step was started on a record. */
+    HEDGED,
+    /**
+     * A record shared the running call of a record with the same key, see {@link
+     * org.articioc.StepOptions.SingleFlightOptions}.
+     */
+    COALESCED
+  }
+
+  default void started(Operation operation, Step step, int records) {}
+
+  /**
+   * @param failure the cause if the operation failed, {@code null} otherwise.
+   */
+  default void completed(
+      Operation operation, Step step, int records, long durationNanos, Throwable failure) {}
+
+  default void event(Event event, Step step, int records) {}
+}
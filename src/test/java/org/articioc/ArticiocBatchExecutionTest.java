@@ -0,0 +1,227 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.interfaces.Provider;
+import org.articioc.base.models.CommitOperationOptions;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocBatchExecutionTest {
+
+  /** Returns everything that has been written so far at each read. */
+  static class DrainingProvider implements Provider<TestLeaf> {
+
+    private final Queue<TestLeaf> queue = new LinkedBlockingQueue<>();
+    private final List<Integer> writes = new ArrayList<>();
+    private final List<CommitOperationOptions<TestLeaf>> commits = new ArrayList<>();
+
+    private int commitCounter;
+    private int rollbackCounter;
+
+    @Override
+    public CompletableFuture<Stream<LeafCarrier<TestLeaf>>> read() {
+      var records = new ArrayList<LeafCarrier<TestLeaf>>();
+
+      TestLeaf next;
+      while ((next = queue.poll()) != null) {
+        var record = next;
+        records.add(LeafCarrier.from(record)
+            .withCommit(options -> {
+              commitCounter++;
+              commits.add(options);
+              return CompletableFuture.completedFuture(record);
+            })
+            .withRollback(options -> {
+              rollbackCounter++;
+              return CompletableFuture.completedFuture(record);
+            }));
+      }
+
+      return CompletableFuture.completedFuture(Stream.ofAll(records));
+    }
+
+    @Override
+    public CompletableFuture<TestLeaf> write(TestLeaf leaf) {
+      return write(Stream.of(leaf)).thenApply(Stream::head);
+    }
+
+    @Override
+    public CompletableFuture<Stream<TestLeaf>> write(Stream<TestLeaf> leaves) {
+      var records = leaves.toList();
+      writes.add(records.size());
+      records.forEach(queue::add);
+
+      return CompletableFuture.completedFuture(records.toStream());
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  void manyToManyReceivesTheWholeGroupAndProviderReceivesASingleWrite() {
+    var provider = new DrainingProvider();
+    var batchSizes = new ArrayList<Integer>();
+
+    var articioc = new Articioc.Builder<>(
+            provider,
+            () -> Stream.of(
+                new TestLeaf().setStep0("a"),
+                new TestLeaf().setStep0("b"),
+                new TestLeaf().setStep0("c")),
+            TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addStep(Utils::oneToOneOnStep1)
+        .checkpoint(TestStep._1)
+        .addStep((ManyToMany<TestLeaf>) records -> {
+          batchSizes.add(records.size());
+          return records;
+        })
+        .addStep(Utils::enrichStep1)
+        .end();
+
+    articioc.trigger().join();
+    provider.writes.clear();
+
+    var first = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(3, first.size());
+    Assertions.assertEquals(List.of(3), provider.writes);
+
+    var second = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(3, second.size());
+    Assertions.assertEquals(List.of(3), batchSizes);
+    Assertions.assertTrue(second.forAll(e -> e.getStep1().equals("OneToOne step, enriched!")));
+
+    Assertions.assertEquals(6, provider.commitCounter);
+    Assertions.assertEquals(0, provider.rollbackCounter);
+  }
+
+  @Test
+  void recordsAtDifferentStepsAreGroupedByStep() {
+    var provider = new DrainingProvider();
+
+    var articioc = Utils.basic(new Articioc.Builder<>(provider, TestStep._0))
+        .executionMode(ExecutionMode.BATCH)
+        .end();
+
+    provider.write(Stream.of(
+        (TestLeaf) new TestLeaf().setStep(TestStep._0),
+        (TestLeaf) new TestLeaf().setStep1("OneToOne step").setStep(TestStep._1),
+        (TestLeaf) new TestLeaf().setStep(TestStep._0)));
+    provider.writes.clear();
+
+    var result = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(3, result.size());
+    Assertions.assertEquals(List.of(3), provider.writes);
+    Assertions.assertEquals(2, result.count(e -> e.getStep().equals(TestStep._1)));
+    Assertions.assertEquals(1, result.count(e -> e.getStep().equals(TestStep._2)));
+  }
+
+  @Test
+  void failingGroupIsRolledBackWhileTheOthersAreCommitted() {
+    var provider = new DrainingProvider();
+
+    var articioc = new Articioc.Builder<>(provider, TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addStep(Utils::oneToOne)
+        .checkpoint(TestStep._1)
+        .addStep((OneToOne<TestLeaf>) input -> {
+          throw new RuntimeException("Unlucky exception.. :/ wasn't expected..");
+        })
+        .end();
+
+    provider.write(Stream.of(
+        (TestLeaf) new TestLeaf().setStep(TestStep._0),
+        (TestLeaf) new TestLeaf().setStep(TestStep._1),
+        (TestLeaf) new TestLeaf().setStep(TestStep._1)));
+
+    var result = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(1, result.size());
+    Assertions.assertEquals(TestStep._1, result.head().getStep());
+    Assertions.assertEquals(1, provider.commitCounter);
+    Assertions.assertEquals(2, provider.rollbackCounter);
+  }
+
+  @Test
+  void eachRecordOfTheGroupIsCommittedWithTheOutputOfTheGroup() {
+    var provider = new DrainingProvider();
+
+    var articioc = new Articioc.Builder<>(provider, TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addStep((ManyToMany<TestLeaf>) records -> records.take(1))
+        .checkpoint(TestStep._1)
+        .end();
+
+    provider.write(Stream.of(
+        (TestLeaf) new TestLeaf().setStep0("a").setStep(TestStep._0),
+        (TestLeaf) new TestLeaf().setStep0("b").setStep(TestStep._0)));
+
+    var result = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(1, result.size());
+    Assertions.assertEquals(2, provider.commits.size());
+    provider.commits.forEach(options -> {
+      Assertions.assertEquals(TestStep._1, options.targetStep());
+      Assertions.assertEquals(
+          List.of("a"), options.recordsInOutput().map(TestLeaf::getStep0).toJavaList());
+    });
+  }
+
+  /** Identified by {@code step0}, as the rows of a poller by their id. */
+  static class KeyedLeaf extends TestLeaf {
+    KeyedLeaf(String key) {
+      super(TestStep._0);
+      setStep0(key);
+    }
+
+    @Override
+    public String key() {
+      return getStep0();
+    }
+  }
+
+  @Test
+  void recordsOfProvidersCommittingOnTheirOwnOutputGetTheOutputWithTheirKey() {
+    DrainingProvider provider = new DrainingProvider() {
+      @Override
+      public boolean commitsOnOwnOutput() {
+        return true;
+      }
+    };
+
+    var articioc = new Articioc.Builder<>(provider, TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addStep((ManyToMany<TestLeaf>) records -> records.filter(e -> !e.key().equals("b")))
+        .checkpoint(TestStep._1)
+        .end();
+
+    provider.write(Stream.of(new KeyedLeaf("a"), new KeyedLeaf("b"), new KeyedLeaf("c")));
+    provider.writes.clear();
+
+    var result = articioc.readThenExecute().join().toList();
+
+    Assertions.assertEquals(2, result.size());
+    Assertions.assertEquals(List.of(2), provider.writes);
+    /* Committed in the order they were read: "b" produced nothing. */
+    Assertions.assertEquals(
+        List.of(List.of("a"), List.of(), List.of("c")),
+        provider.commits.stream()
+            .map(options -> options.recordsInOutput().map(TestLeaf::key).toJavaList())
+            .toList());
+  }
+}
@@ -0,0 +1,249 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.interfaces.Provider;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocContinuousRunnerTest {
+
+  /** Reads at most {@code limit} records, after {@code latency}. Writes are discarded. */
+  static class SlowProvider implements Provider<TestLeaf> {
+
+    private final Queue<TestLeaf> queue = new ConcurrentLinkedQueue<>();
+    private final int limit;
+    private final long latency;
+
+    private final AtomicInteger readsInFlight = new AtomicInteger();
+
+    SlowProvider(int limit, long latency) {
+      this.limit = limit;
+      this.latency = latency;
+    }
+
+    @Override
+    public CompletableFuture<Stream<LeafCarrier<TestLeaf>>> read() {
+      readsInFlight.incrementAndGet();
+
+      return CompletableFuture.supplyAsync(
+          () -> {
+            var records = new ArrayList<LeafCarrier<TestLeaf>>();
+
+            TestLeaf next;
+            while (records.size() < limit && (next = queue.poll()) != null) {
+              records.add(LeafCarrier.from(next));
+            }
+
+            readsInFlight.decrementAndGet();
+            return Stream.ofAll(records);
+          },
+          CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public CompletableFuture<TestLeaf> write(TestLeaf leaf) {
+      return CompletableFuture.completedFuture(leaf);
+    }
+
+    @Override
+    public CompletableFuture<Stream<TestLeaf>> write(Stream<TestLeaf> leaves) {
+      return CompletableFuture.completedFuture(leaves);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static Stream<TestLeaf> records(int size) {
+    return Stream.range(0, size).map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i)));
+  }
+
+  @Test
+  void readsAheadWhileExecutingAndExecutesEveryRecord() {
+    var provider = new SlowProvider(5, 5);
+    records(50).forEach(provider.queue::add);
+
+    var overlaps = new AtomicInteger();
+    var executed = new AtomicInteger();
+
+    OneToOneAsync<TestLeaf> slowStep = input -> {
+      if (provider.readsInFlight.get() > 0) overlaps.incrementAndGet();
+
+      return CompletableFuture.supplyAsync(
+          () -> {
+            executed.incrementAndGet();
+            return input;
+          },
+          CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+    };
+
+    var runner = new Articioc.Builder<>(provider, TestStep._0)
+        .addStep(slowStep)
+        .end()
+        .runner()
+        .loops(2)
+        .prefetch(1)
+        .fullBatchSize(5)
+        .build()
+        .start();
+
+    Assertions.assertTrue(runner.isRunning());
+
+    var deadline = System.currentTimeMillis() + 5_000;
+    while (executed.get() < 50 && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+
+    runner.stop().orTimeout(5, TimeUnit.SECONDS).join();
+
+    Assertions.assertFalse(runner.isRunning());
+    Assertions.assertEquals(50, executed.get());
+    Assertions.assertEquals(50, runner.stats().records());
+    Assertions.assertTrue(overlaps.get() > 0);
+  }
+
+  @Test
+  void doesNotReadWhileExecutingByDefault() {
+    var provider = new SlowProvider(5, 1);
+    records(20).forEach(provider.queue::add);
+
+    var overlaps = new AtomicInteger();
+    var executed = new AtomicInteger();
+
+    OneToOneAsync<TestLeaf> slowStep = input -> {
+      if (provider.readsInFlight.get() > 0) overlaps.incrementAndGet();
+
+      return CompletableFuture.supplyAsync(
+          () -> {
+            executed.incrementAndGet();
+            return input;
+          },
+          CompletableFuture.delayedExecutor(2, TimeUnit.MILLISECONDS));
+    };
+
+    var runner = new Articioc.Builder<>(provider, TestStep._0)
+        .addStep(slowStep)
+        .end()
+        .runner()
+        .fullBatchSize(5)
+        .build()
+        .start();
+
+    var deadline = System.currentTimeMillis() + 5_000;
+    while (executed.get() < 20 && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+
+    runner.stop().orTimeout(5, TimeUnit.SECONDS).join();
+
+    Assertions.assertEquals(20, executed.get());
+    Assertions.assertEquals(0, overlaps.get());
+  }
+
+  @Test
+  void backsOffWhenReadsAreEmpty() throws InterruptedException {
+    var provider = new SlowProvider(5, 0);
+
+    var runner = new Articioc.Builder<>(provider, TestStep._0)
+        .end()
+        .runner()
+        .backoff(Duration.ofMillis(20), Duration.ofMillis(80))
+        .build()
+        .start();
+
+    Thread.sleep(300);
+    runner.stop().orTimeout(5, TimeUnit.SECONDS).join();
+
+    var stats = runner.stats();
+    Assertions.assertEquals(stats.reads(), stats.emptyReads());
+    /* 20 + 40 + 80 + 80 + ... would allow at most 6 reads in 300ms, without backoff they'd be
+     * thousands. */
+    Assertions.assertTrue(stats.reads() <= 8, "Reads: " + stats.reads());
+    Assertions.assertEquals(0, stats.records());
+  }
+
+  @Test
+  void shortestBackoffStillBoundsEmptyReads() throws InterruptedException {
+    var provider = new SlowProvider(5, 0);
+    var builder = new Articioc.Builder<>(provider, TestStep._0).end().runner();
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.backoff(Duration.ZERO, Duration.ofSeconds(1)));
+
+    var runner = builder
+        .backoff(Duration.ofNanos(1), Duration.ofMillis(80))
+        .build()
+        .start();
+
+    Thread.sleep(300);
+    runner.stop().orTimeout(5, TimeUnit.SECONDS).join();
+
+    /* Doubling from 1ns reaches 80ms in 27 reads, a hot spin would be thousands. */
+    var reads = runner.stats().emptyReads();
+    Assertions.assertTrue(reads <= 40, "Reads: " + reads);
+  }
+
+  @Test
+  void restartWaitsForTheLoopsOfThePreviousRun() throws InterruptedException {
+    var provider = new SlowProvider(1, 0);
+    records(2).forEach(provider.queue::add);
+
+    var gate = new CompletableFuture<Void>();
+    var executing = new AtomicInteger();
+    var overlaps = new AtomicInteger();
+
+    OneToOneAsync<TestLeaf> step = input -> {
+      if (executing.incrementAndGet() > 1) overlaps.incrementAndGet();
+
+      return gate.thenApply(ignore -> {
+        executing.decrementAndGet();
+        return input;
+      });
+    };
+
+    var runner = new Articioc.Builder<>(provider, TestStep._0)
+        .addStep(step)
+        .end()
+        .runner()
+        .fullBatchSize(1)
+        .build()
+        .start();
+
+    var deadline = System.currentTimeMillis() + 5_000;
+    while (executing.get() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+
+    var firstStop = runner.stop();
+    runner.start();
+    Thread.sleep(100);
+
+    Assertions.assertEquals(1, runner.stats().reads());
+    Assertions.assertFalse(firstStop.isDone());
+
+    gate.complete(null);
+    firstStop.orTimeout(5, TimeUnit.SECONDS).join();
+
+    deadline = System.currentTimeMillis() + 5_000;
+    while (runner.stats().records() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+
+    runner.stop().orTimeout(5, TimeUnit.SECONDS).join();
+
+    Assertions.assertEquals(0, overlaps.get());
+    Assertions.assertEquals(2, runner.stats().records());
+  }
+}
@@ -0,0 +1,198 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.articioc.base.Step;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.interfaces.endless.EndlessCollector;
+import org.articioc.interfaces.endless.EndlessOperations;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArticiocEndlessCollectorTest {
+
+  private static final int CHUNK_SIZE = 10;
+  private static final int CHUNKS = 10;
+
+  private final Supplier<CompletableFuture<Stream<TestLeaf>>> trigger =
+      () -> CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0)));
+
+  @TempDir
+  Path directory;
+
+  private static EndlessOperations.EndlessOneToMany<TestLeaf, TestStep> numbers(
+      int chunks, int chunkSize) {
+    return input -> Stream.range(0, chunks)
+        .map(chunk -> Stream.range(0, chunkSize)
+            .map(i -> input.copy().setStep0(String.valueOf(chunk * chunkSize + i))));
+  }
+
+  private Stream<String> run(EndlessCollector<TestLeaf> collector) {
+    return run(collector, numbers(CHUNKS, CHUNK_SIZE), records -> records);
+  }
+
+  private Stream<String> run(
+      EndlessCollector<TestLeaf> collector,
+      EndlessOperations.EndlessOneToMany<TestLeaf, TestStep> source,
+      ManyToMany<TestLeaf> step) {
+    var options = new StepOptions<TestLeaf, TestStep>()
+        .setEndless(new StepOptions.EndlessOptions<>(null, null, true, null, null, collector));
+
+    return new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), trigger, TestStep._0)
+        .addEndless(source, b -> b.addStep(step), options)
+        .end()
+        .pipeline()
+        .apply(trigger.get())
+        .join()
+        .map(TestLeaf::getStep0);
+  }
+
+  private static List<String> range(int from, int to) {
+    return IntStream.range(from, to).mapToObj(String::valueOf).toList();
+  }
+
+  @Test
+  public void allAndNoneMatchShouldCollect() {
+    Assertions.assertEquals(range(0, 100), run(EndlessCollector.all()).toJavaList());
+    Assertions.assertTrue(run(EndlessCollector.none()).isEmpty());
+  }
+
+  @Test
+  public void lastKeepsTheTailOfTheOutput() {
+    Assertions.assertEquals(range(97, 100), run(EndlessCollector.last(3)).toJavaList());
+  }
+
+  @Test
+  public void sampleKeepsRecordsOfTheOutput() {
+    var sample = run(EndlessCollector.sample(5)).toJavaList();
+
+    Assertions.assertEquals(5, sample.size());
+    Assertions.assertEquals(5, Stream.ofAll(sample).distinct().size());
+    Assertions.assertTrue(range(0, 100).containsAll(sample));
+  }
+
+  @Test
+  public void toProviderWritesInBatches() {
+    var writes = new AtomicLong();
+    var provider = new InMemoryProvider<TestLeaf>() {
+      @Override
+      public CompletableFuture<Stream<TestLeaf>> write(Stream<TestLeaf> leaves) {
+        writes.incrementAndGet();
+        return super.write(leaves);
+      }
+    };
+
+    var result = run(EndlessCollector.toProvider(provider, 30));
+
+    Assertions.assertTrue(result.isEmpty());
+    Assertions.assertEquals(4, writes.get());
+    Assertions.assertEquals(
+        range(0, 100), provider.getQueue().map(TestLeaf::getStep0).toJavaList());
+  }
+
+  @Test
+  public void spillToDiskReadsTheOutputBack() {
+    var collector = EndlessCollector.<TestLeaf>spillToDisk(
+        directory, TestLeaf::getStep0, line -> new TestLeaf(Step.FINAL).setStep0(line));
+
+    Assertions.assertEquals(range(0, 100), run(collector).toJavaList());
+    Assertions.assertEquals(List.of(), filesIn(directory));
+  }
+
+  @Test
+  public void spillFileIsDeletedWhenTheStepFails() {
+    Function<TestLeaf, String> encode = record -> {
+      if (record.getStep0().equals("99")) throw new IllegalStateException("Boom");
+      return record.getStep0();
+    };
+    var collector = EndlessCollector.<TestLeaf>spillToDisk(
+        directory, encode, line -> new TestLeaf(Step.FINAL).setStep0(line));
+
+    /* The failure is handled by the checkpoint, none of the spilled records is returned. */
+    var output = run(collector).toJavaList();
+
+    Assertions.assertTrue(output.isEmpty());
+    Assertions.assertEquals(List.of(), filesIn(directory));
+  }
+
+  @Test
+  public void spilledOutputIsReadBackLazily() {
+    var accumulator = EndlessCollector.<TestLeaf>spillToDisk(
+            directory, TestLeaf::getStep0, line -> new TestLeaf(Step.FINAL).setStep0(line))
+        .open();
+
+    /* 1M records: reading them all back would take well over a hundred megabytes. */
+    for (var chunk = 0; chunk < 200; chunk++) {
+      var records = Stream.range(chunk * 5_000, (chunk + 1) * 5_000)
+          .map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i)));
+      accumulator.add(records).join();
+    }
+
+    var usedBefore = usedHeap();
+    var output = accumulator.result().join();
+    var grown = usedHeap() - usedBefore;
+
+    Assertions.assertTrue(grown < 32 * 1024 * 1024, () -> "Heap grew by " + grown + " bytes");
+    Assertions.assertEquals("0", output.head().getStep0());
+    Assertions.assertEquals(1, filesIn(directory).size());
+
+    /* Traversed without holding the head, so the records already read can be collected. */
+    var records = output.iterator();
+    output = null;
+
+    Assertions.assertEquals(1_000_000, records.size());
+    Assertions.assertEquals(List.of(), filesIn(directory));
+  }
+
+  private static List<Path> filesIn(Path directory) {
+    try (var files = Files.list(directory)) {
+      return files.toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void boundedCollectorKeepsTheHeapFlat() {
+    var chunks = 200;
+    var usedAfterWarmUp = new AtomicLong();
+    var usedAtTheEnd = new AtomicLong();
+
+    ManyToMany<TestLeaf> measure = records -> {
+      records.map(e -> Integer.parseInt(e.getStep0())).forEach(number -> {
+        if (number == 20 * 5_000) usedAfterWarmUp.set(usedHeap());
+        if (number == (chunks - 1) * 5_000) usedAtTheEnd.set(usedHeap());
+      });
+      return records;
+    };
+
+    /* 1M records: holding them all would take well over a hundred megabytes. */
+    var result = run(EndlessCollector.last(10), numbers(chunks, 5_000), measure);
+
+    Assertions.assertEquals(range(999_990, 1_000_000), result.toJavaList());
+    Assertions.assertTrue(
+        usedAtTheEnd.get() - usedAfterWarmUp.get() < 32 * 1024 * 1024,
+        () -> "Heap grew by " + (usedAtTheEnd.get() - usedAfterWarmUp.get()) + " bytes");
+  }
+
+  private static long usedHeap() {
+    var runtime = Runtime.getRuntime();
+    System.gc();
+
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
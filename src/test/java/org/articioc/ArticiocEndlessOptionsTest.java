@@ -5,18 +5,23 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.interfaces.Provider;
 import org.articioc.base.providers.EmptyProvider;
 import org.articioc.base.providers.InMemoryProvider;
 import org.articioc.base.utils.ChunkStream;
 import org.articioc.interfaces.endless.EndlessOperations;
 import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.interfaces.manyTo.ManyToManyAsync;
 import org.articioc.interfaces.oneTo.OneToMany;
 import org.articioc.interfaces.oneTo.OneToOneAsync;
 import org.articioc.tests.models.TestLeaf;
@@ -113,6 +118,78 @@ public class ArticiocEndlessOptionsTest {
     Assertions.assertEquals(this.totalLinesInFile, provider.getQueue().length());
   }
 
+  @Test
+  public void chunksAreProcessedConcurrently() {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    for (var preserveOrder : List.of(true, false)) {
+      var pipeline = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), trigger, TestStep._0)
+          .executionContext(ExecutionContext.virtualThreads())
+          .addEndless(
+              this.readFileInChunk(),
+              b -> b.addStep((ManyToManyAsync<TestLeaf>) chunk -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(
+                    () -> {
+                      running.decrementAndGet();
+                      return chunk;
+                    },
+                    CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+              }),
+              new StepOptions<TestLeaf, TestStep>()
+                  .setEndless(new StepOptions.EndlessOptions<>(null, null, true, 4, preserveOrder)))
+          .end()
+          .pipeline();
+
+      var result = pipeline.apply(trigger.get()).join().map(TestLeaf::getStep0).toJavaList();
+      var expected = IntStream.range(0, (int) this.totalLinesInFile)
+          .mapToObj(String::valueOf)
+          .toList();
+
+      if (preserveOrder) Assertions.assertEquals(expected, result);
+      else Assertions.assertEquals(Set.copyOf(expected), Set.copyOf(result));
+    }
+
+    /* Records are processed one by one inside each chunk of 5, so 4 chunks run at most 20. */
+    Assertions.assertTrue(maxRunning.get() > 5);
+    Assertions.assertTrue(maxRunning.get() <= 20);
+  }
+
+  @Test
+  public void concurrencyWithoutAnExecutionContextIsRefused() {
+    var builder = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), trigger, TestStep._0);
+    var options = new StepOptions<TestLeaf, TestStep>()
+        .setEndless(new StepOptions.EndlessOptions<>(null, null, true, 4, true));
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.addEndless(this.readFileInChunk(), b -> b, options));
+  }
+
+  @Test
+  public void loopDoesNotHoldAThreadWhileChunksAreWaiting() {
+    var gate = new CompletableFuture<Void>();
+
+    var pipeline = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), trigger, TestStep._0)
+        .addEndless(
+            this.readFileInChunk(),
+            b -> b.addStep((ManyToManyAsync<TestLeaf>) chunk -> gate.thenApply(ignore -> chunk)))
+        .end()
+        .pipeline();
+
+    /* Runs inline: the call returns while the first chunk waits, no thread is left behind. */
+    var result = pipeline.apply(trigger.get());
+    Assertions.assertFalse(result.isDone());
+
+    gate.complete(null);
+
+    var expected = IntStream.range(0, (int) this.totalLinesInFile)
+        .mapToObj(String::valueOf)
+        .toList();
+    Assertions.assertEquals(expected, result.join().map(TestLeaf::getStep0).toJavaList());
+  }
+
   private EndlessOperations.EndlessOneToMany<TestLeaf, TestStep> readFileInChunk() {
     return readFileInChunk(pathToTestFile(PATH_TO_POTENTIALLY_ENDLESS_FILE));
   }
@@ -0,0 +1,133 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.endless.CursorStore;
+import org.articioc.interfaces.endless.ResumableEndless;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArticiocEndlessResumeTest {
+
+  private static final int CHUNK_SIZE = 10;
+  private static final int CHUNKS = 10;
+
+  private final Supplier<CompletableFuture<Stream<TestLeaf>>> trigger =
+      () -> CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0)));
+
+  @TempDir
+  Path directory;
+
+  /* The source fails when asked for chunk `crashAt`, as if the process stopped there. */
+  private static ResumableEndless<TestLeaf, TestStep> numbers(int crashAt) {
+    return ResumableEndless.byIndex(input -> Stream.range(0, CHUNKS)
+        .map(chunk -> {
+          if (chunk == crashAt) throw new IllegalStateException("Crash");
+
+          return Stream.range(0, CHUNK_SIZE)
+              .map(i -> input.copy().setStep0(String.valueOf(chunk * CHUNK_SIZE + i)));
+        }));
+  }
+
+  private CompletableFuture<Stream<TestLeaf>> run(
+      ResumableEndless<TestLeaf, TestStep> source, CursorStore cursors, ManyToMany<TestLeaf> step) {
+    return new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), trigger, TestStep._0)
+        .addEndless(source, cursors, b -> b.addStep(step))
+        .end()
+        .pipeline()
+        .apply(trigger.get());
+  }
+
+  private static List<String> range(int from, int to) {
+    return IntStream.range(from, to).mapToObj(String::valueOf).toList();
+  }
+
+  @Test
+  public void restartResumesAfterTheLastCommittedChunk() {
+    var processed = new ConcurrentHashMap<String, AtomicInteger>();
+
+    ManyToMany<TestLeaf> step = records -> records.peek(record -> processed
+        .computeIfAbsent(record.getStep0(), k -> new AtomicInteger())
+        .incrementAndGet());
+
+    var firstRun = run(numbers(6), CursorStore.file(directory), step);
+
+    /* The failed step is dropped by the engine, the cursor stays. */
+    Assertions.assertTrue(firstRun.join().isEmpty());
+    Assertions.assertEquals(
+        Optional.of("5"), CursorStore.file(directory).load(new TestLeaf().key()).join());
+    Assertions.assertEquals(60, processed.size());
+
+    /* A new store on the same directory, as after a restart of the process. */
+    var secondRun = run(numbers(-1), CursorStore.file(directory), step);
+
+    Assertions.assertEquals(range(60, 100), secondRun.join().map(TestLeaf::getStep0).toJavaList());
+    Assertions.assertEquals(100, processed.size());
+    Assertions.assertTrue(processed.values().stream().allMatch(count -> count.get() == 1));
+
+    Assertions.assertEquals(
+        Optional.empty(), CursorStore.file(directory).load(new TestLeaf().key()).join());
+  }
+
+  @Test
+  public void opaqueCursorsAreGivenBackToTheSource() {
+    var cursors = CursorStore.inMemory();
+    var key = new TestLeaf().key();
+    cursors.save(key, "b").join();
+
+    ResumableEndless<TestLeaf, TestStep> letters = (input, cursor) -> Stream.of("a", "b", "c", "d")
+        .dropUntil(letter -> cursor == null || letter.compareTo(cursor) > 0)
+        .map(letter -> new ResumableEndless.Chunk<>(
+            Stream.of(input.copy().setStep0(letter)), letter));
+
+    var result = run(letters, cursors, records -> records).join();
+
+    Assertions.assertEquals(List.of("c", "d"), result.map(TestLeaf::getStep0).toJavaList());
+    Assertions.assertEquals(Optional.empty(), cursors.load(key).join());
+  }
+
+  @Test
+  public void fileStoreSurvivesANewInstance() {
+    var id = "any id/with:characters";
+
+    CursorStore.file(directory).save(id, "first").join();
+    CursorStore.file(directory).save(id, "second").join();
+
+    Assertions.assertEquals(Optional.of("second"), CursorStore.file(directory).load(id).join());
+
+    CursorStore.file(directory).clear(id).join();
+    Assertions.assertEquals(Optional.empty(), CursorStore.file(directory).load(id).join());
+  }
+  @Test
+  public void fileStoreHashesIdsTooLongForAFileName() throws IOException {
+    var id = "id-".repeat(200);
+
+    CursorStore.file(directory).save(id, "cursor").join();
+    Assertions.assertEquals(Optional.of("cursor"), CursorStore.file(directory).load(id).join());
+
+    try (var files = Files.list(directory)) {
+      var names = files.map(f -> f.getFileName().toString()).toList();
+
+      Assertions.assertEquals(1, names.size());
+      Assertions.assertTrue(names.getFirst().matches("[0-9a-f]{64}\\.cursor"), names.getFirst());
+    }
+
+    CursorStore.file(directory).clear(id).join();
+    Assertions.assertEquals(Optional.empty(), CursorStore.file(directory).load(id).join());
+  }
+
+}
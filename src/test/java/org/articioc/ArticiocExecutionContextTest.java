@@ -0,0 +1,60 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocExecutionContextTest {
+
+  private static Stream<TestLeaf> records(int size) {
+    return Stream.range(0, size).map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i)));
+  }
+
+  @Test
+  void recordsAreExecutedOnTheGivenContext() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .executionContext(ExecutionContext.virtualThreads())
+        .addStep((OneToOne<TestLeaf>) input -> {
+          threads.add(Thread.currentThread());
+          return input;
+        })
+        .addStep(Utils::enrichStep4)
+        .end();
+
+    var result = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(records(10)))
+        .join();
+
+    Assertions.assertEquals(10, result.size());
+    Assertions.assertFalse(threads.isEmpty());
+    Assertions.assertTrue(threads.stream().allMatch(Thread::isVirtual));
+  }
+
+  @Test
+  void withoutContextRecordsAreExecutedByTheCallingThread() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep((OneToOne<TestLeaf>) input -> {
+          threads.add(Thread.currentThread());
+          return input;
+        })
+        .end();
+
+    articioc.pipeline().apply(CompletableFuture.completedFuture(records(5))).join();
+
+    Assertions.assertEquals(Set.of(Thread.currentThread()), threads);
+  }
+}
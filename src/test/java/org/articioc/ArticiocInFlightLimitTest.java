@@ -0,0 +1,89 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocInFlightLimitTest {
+
+  static class ConcurrencyProbe {
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    OneToOneAsync<TestLeaf> step() {
+      return input -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+        return CompletableFuture.supplyAsync(
+            () -> {
+              running.decrementAndGet();
+              return input;
+            },
+            CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+      };
+    }
+  }
+
+  private static Stream<TestLeaf> records(int size) {
+    return Stream.range(0, size).map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i)));
+  }
+
+  @Test
+  void globalLimitIsEnforcedAndWaitTimeIsExposed() {
+    var probe = new ConcurrencyProbe();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .maxInFlight(3)
+        .addStep(probe.step())
+        .addStep(Utils::enrichStep4)
+        .end();
+
+    var result = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(records(20)))
+        .join();
+
+    Assertions.assertEquals(20, result.size());
+    Assertions.assertTrue(probe.maxRunning.get() <= 3);
+
+    var stats = articioc.inFlightStats().orElseThrow();
+    Assertions.assertEquals(20, stats.started());
+    Assertions.assertEquals(17, stats.waited());
+    Assertions.assertTrue(stats.maxWaitNanos() > 0);
+    Assertions.assertEquals(0, stats.inFlight());
+  }
+
+  @Test
+  void checkpointLimitOnlyAppliesToItsSteps() {
+    var before = new ConcurrencyProbe();
+    var limited = new ConcurrencyProbe();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(before.step())
+        .checkpoint(TestStep._1)
+        .addStep(limited.step())
+        .maxInFlightOnCheckpoint(2)
+        .end();
+
+    var result = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(records(10)))
+        .join();
+
+    Assertions.assertEquals(10, result.size());
+    Assertions.assertEquals(10, before.maxRunning.get());
+    Assertions.assertTrue(limited.maxRunning.get() <= 2);
+
+    Assertions.assertTrue(articioc.inFlightStats().isEmpty());
+    Assertions.assertTrue(articioc.inFlightStats(TestStep._0).isEmpty());
+    Assertions.assertEquals(10, articioc.inFlightStats(TestStep._1).orElseThrow().started());
+  }
+}
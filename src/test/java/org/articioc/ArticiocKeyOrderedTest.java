@@ -0,0 +1,118 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocKeyOrderedTest {
+
+  static class KeyedLeaf extends TestLeaf {
+    private final String key;
+
+    KeyedLeaf(String key, int sequence) {
+      super(TestStep._0);
+      this.key = key;
+      setStep0(String.valueOf(sequence));
+    }
+
+    @Override
+    public String key() {
+      return key;
+    }
+  }
+
+  @Test
+  void recordsWithTheSameKeyAreExecutedInOrderWhileKeysRunInParallel() {
+    Map<String, List<String>> executed = new ConcurrentHashMap<>();
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.KEY_ORDERED)
+        .lanes(4)
+        .executionContext(ExecutionContext.virtualThreads())
+        .addStep((OneToOne<TestLeaf>) input -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          sleepUpTo(2);
+          executed.computeIfAbsent(input.key(), k -> new CopyOnWriteArrayList<>())
+              .add(input.getStep0());
+          running.decrementAndGet();
+          return input;
+        })
+        .checkpoint(TestStep._1)
+        .addStep(Utils::enrichStep1)
+        .end();
+
+    var records = Stream.range(0, 25)
+        .flatMap(i -> Stream.range(0, 8).map(k -> (TestLeaf) new KeyedLeaf("key-" + k, i)));
+
+    var result = articioc.pipeline().apply(CompletableFuture.completedFuture(records)).join();
+
+    Assertions.assertEquals(200, result.size());
+    Assertions.assertEquals(8, executed.size());
+
+    var expected = Stream.range(0, 25).map(String::valueOf).toJavaList();
+    executed.values().forEach(sequence -> Assertions.assertEquals(expected, sequence));
+    Assertions.assertTrue(maxRunning.get() > 1);
+  }
+
+  @Test
+  void recordsOfALaterReadWaitForEarlierRecordsWithTheSameKey() throws Exception {
+    var gate = new CountDownLatch(1);
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.KEY_ORDERED)
+        .executionContext(ExecutionContext.virtualThreads())
+        .addStep((OneToOne<TestLeaf>) input -> {
+          if (input.getStep0().equals("0")) await(gate);
+          return input;
+        })
+        .end();
+
+    var first = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(new KeyedLeaf("same", 0))));
+    var second = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(new KeyedLeaf("same", 1))));
+
+    Assertions.assertThrows(
+        Exception.class, () -> second.get(100, TimeUnit.MILLISECONDS));
+
+    gate.countDown();
+
+    Assertions.assertEquals("0", first.join().single().getStep0());
+    Assertions.assertEquals("1", second.join().single().getStep0());
+  }
+
+  private static void sleepUpTo(int millis) {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextInt(millis + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
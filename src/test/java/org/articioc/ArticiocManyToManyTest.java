@@ -4,7 +4,12 @@ import io.vavr.collection.Stream;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.articioc.base.execution.ExecutionContext;
 import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.Outcome;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.interfaces.manyTo.ManyToOutcome;
 import org.articioc.tests.models.TestLeaf;
 import org.articioc.tests.models.TestStep;
 import org.junit.jupiter.api.Assertions;
@@ -80,6 +85,119 @@ class ArticiocManyToManyTest {
     Assertions.assertEquals(List.of("d", "b", "a", "c"), letters);
   }
 
+  @Test
+  void OutcomeSteps_SkipAndRedirectEndTheCheckpointWithoutRunningTheNextSteps() {
+    ManyToOutcome<TestLeaf> skipFlagged = records -> records.head().getStep0() == null
+        ? Outcome.next(records)
+        : Outcome.skip(records.map(e -> (TestLeaf) e.setStep(TestStep._3)));
+
+    ManyToMany<TestLeaf> neverAfterSkip = records -> records.map(e -> e.setStep1("executed"));
+
+    var pipeline = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .addStep(skipFlagged)
+        .addStep(neverAfterSkip)
+        .checkpoint(TestStep._1)
+        .addStep((ManyToOutcome<TestLeaf>) records -> Outcome.redirect(records, TestStep._3))
+        .checkpoint(TestStep._2)
+        .addStep((ManyToMany<TestLeaf>) records -> records.map(e -> e.setStep2("executed")))
+        .checkpoint(TestStep._3)
+        .end()
+        .pipeline();
+
+    var skipped = pipeline
+        .apply(CompletableFuture.completedFuture(
+            Stream.of(new TestLeaf(TestStep._0).setStep0("skip"))))
+        .join()
+        .single();
+
+    Assertions.assertNull(skipped.getStep1());
+    Assertions.assertNull(skipped.getStep2());
+    Assertions.assertTrue(skipped.getStep().isFinal());
+
+    var redirected = pipeline
+        .apply(CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0))))
+        .join()
+        .single();
+
+    Assertions.assertEquals("executed", redirected.getStep1());
+    Assertions.assertNull(redirected.getStep2());
+    Assertions.assertTrue(redirected.getStep().isFinal());
+  }
+
+  @Test
+  void ParallelStep_EachChunkIsProcessedOnItsOwnAndResultsKeepTheirOrder() {
+    var chunkSizes = new CopyOnWriteArrayList<Integer>();
+
+    ManyToMany<TestLeaf> uppercase = records -> {
+      chunkSizes.add(records.size());
+      return records.map(e -> e.setStep1(e.getStep0().toUpperCase()));
+    };
+
+    var parallel = new StepOptions<TestLeaf, TestStep>()
+        .setParallel(new StepOptions.ParallelOptions<>(10, true, ExecutionContext.virtualThreads()));
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addParallelStep(uppercase, parallel)
+        .end();
+
+    var input = Stream.range(0, 95).map(i -> new TestLeaf(TestStep._0).setStep0("record-" + i));
+
+    var result = articioc.pipeline().apply(CompletableFuture.completedFuture(input)).join();
+
+    Assertions.assertEquals(
+        Stream.range(0, 95).map(i -> "RECORD-" + i).toJavaList(),
+        result.map(TestLeaf::getStep1).toJavaList());
+    Assertions.assertEquals(10, chunkSizes.size());
+    Assertions.assertEquals(95, chunkSizes.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  void ParallelStep_WithoutOrderEveryRecordIsStillReturned() {
+    var parallel = new StepOptions<TestLeaf, TestStep>()
+        .setParallel(new StepOptions.ParallelOptions<>(7, false, null));
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .executionMode(ExecutionMode.BATCH)
+        .addParallelStep(this::duplicate, parallel)
+        .end();
+
+    var input = Stream.range(0, 50).map(i -> new TestLeaf(TestStep._0).setStep0("record-" + i));
+
+    var result = articioc.pipeline().apply(CompletableFuture.completedFuture(input)).join();
+
+    Assertions.assertEquals(100, result.size());
+    Assertions.assertEquals(
+        Stream.range(0, 50).map(i -> "record-" + i).toJavaSet(),
+        result.map(TestLeaf::getStep0).toJavaSet());
+  }
+
+  @Test
+  void ParallelStep_DefaultChunkSizeFollowsTheParallelismOfTheContext() {
+    var chunkSizes = new CopyOnWriteArrayList<Integer>();
+
+    ManyToMany<TestLeaf> counting = records -> {
+      chunkSizes.add(records.size());
+      return records;
+    };
+
+    try (var context = ExecutionContext.platform(2)) {
+      var parallel = new StepOptions<TestLeaf, TestStep>()
+          .setParallel(new StepOptions.ParallelOptions<>(null, true, context));
+
+      var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+          .executionMode(ExecutionMode.BATCH)
+          .addParallelStep(counting, parallel)
+          .end();
+
+      var input = Stream.range(0, 80).map(i -> new TestLeaf(TestStep._0).setStep0("record-" + i));
+      articioc.pipeline().apply(CompletableFuture.completedFuture(input)).join();
+    }
+
+    /* Four chunks per thread of the context. */
+    Assertions.assertEquals(List.of(10, 10, 10, 10, 10, 10, 10, 10), chunkSizes.stream().toList());
+  }
+
   TestLeaf print(TestLeaf input) {
     System.out.printf("Elaborating record: %s%n", input);
 
@@ -0,0 +1,128 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import org.articioc.base.LeafCarrier;
+import org.articioc.base.Step;
+import org.articioc.base.interfaces.ProviderSync;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.exceptions.SkipNextSteps;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.metrics.InMemoryPipelineMetrics;
+import org.articioc.metrics.PipelineMetrics.Event;
+import org.articioc.metrics.PipelineMetrics.Operation;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.articioc.tests.utils.Utils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocMetricsTest {
+
+  @Test
+  void checkpointsAndWritesAreMeasuredPerStep() {
+    var metrics = new InMemoryPipelineMetrics();
+    var provider = new InMemoryProvider<TestLeaf>();
+
+    var articioc = Utils.basic(new Articioc.Builder<>(provider, TestStep._0))
+        .metrics(metrics)
+        .end();
+
+    provider.write(Stream.range(0, 3).map(i -> new TestLeaf(TestStep._0)));
+    for (int i = 0; i < 20; i++) {
+      articioc.readThenExecute().join();
+    }
+
+    var snapshot = metrics.snapshot();
+    var first = snapshot.get(TestStep._0.getName()).operations();
+
+    Assertions.assertEquals(3, first.get(Operation.CHECKPOINT).executions());
+    Assertions.assertEquals(3, first.get(Operation.CHECKPOINT).records());
+    Assertions.assertEquals(0, first.get(Operation.CHECKPOINT).inFlight());
+    Assertions.assertEquals(3, first.get(Operation.WRITE).records());
+    Assertions.assertTrue(first.get(Operation.CHECKPOINT).p99Nanos() > 0);
+    Assertions.assertTrue(
+        first.get(Operation.CHECKPOINT).p50Nanos() <= first.get(Operation.CHECKPOINT).p99Nanos());
+
+    Assertions.assertEquals(
+        3, snapshot.get(TestStep._3.getName()).operations().get(Operation.CHECKPOINT).records());
+  }
+
+  @Test
+  void synchronousCommitWorkIsMeasured() {
+    var metrics = new InMemoryPipelineMetrics();
+    var provider = new ProviderSync<TestLeaf>() {
+      @Override
+      public Stream<LeafCarrier<TestLeaf>> readSync() {
+        var record = new TestLeaf(TestStep._0);
+
+        return Stream.of(LeafCarrier.from(record).withCommit(options -> {
+          LockSupport.parkNanos(Duration.ofMillis(20).toNanos());
+          return CompletableFuture.completedFuture(record);
+        }));
+      }
+
+      @Override
+      public TestLeaf writeSync(TestLeaf leaf) {
+        return leaf;
+      }
+
+      @Override
+      public Stream<TestLeaf> writeSync(Stream<TestLeaf> leaves) {
+        return leaves;
+      }
+
+      @Override
+      public void close() {}
+    };
+
+    var articioc = new Articioc.Builder<>(provider, TestStep._0)
+        .metrics(metrics)
+        .checkpoint(TestStep._1)
+        .end();
+
+    articioc.readThenExecute().join();
+
+    var commit = metrics.snapshot().get(TestStep._0.getName()).operations().get(Operation.COMMIT);
+    Assertions.assertEquals(1, commit.executions());
+    Assertions.assertTrue(commit.p50Nanos() >= Duration.ofMillis(20).toNanos());
+  }
+
+  @Test
+  void failuresRecoveriesAndSkipsAreCounted() {
+    var metrics = new InMemoryPipelineMetrics();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .metrics(metrics)
+        .addStep((OneToOne<TestLeaf>) input -> {
+          throw new IllegalStateException("Boom");
+        })
+        .onError((ex, records) -> CompletableFuture.completedFuture(records), TestStep._1)
+        .checkpoint(TestStep._1)
+        .addStep((OneToOne<TestLeaf>) input -> {
+          throw new SkipNextSteps(Stream.of(input.setStep(Step.FINAL)));
+        })
+        .addStep(Utils::enrichStep4)
+        .end();
+
+    articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(
+            new TestLeaf(TestStep._0), (TestLeaf) new TestLeaf().setStep(TestStep._1))))
+        .join();
+
+    var snapshot = metrics.snapshot();
+    var first = snapshot.get(TestStep._0.getName());
+    var second = snapshot.get(TestStep._1.getName());
+
+    Assertions.assertEquals(1, first.events().get(Event.FAILED));
+    Assertions.assertEquals(1, first.events().get(Event.RECOVERED));
+    Assertions.assertEquals(0, first.events().get(Event.SKIPPED));
+    Assertions.assertEquals(0, first.operations().get(Operation.CHECKPOINT).failures());
+
+    Assertions.assertEquals(0, second.events().get(Event.FAILED));
+    Assertions.assertEquals(2, second.events().get(Event.SKIPPED));
+  }
+}
@@ -0,0 +1,87 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import io.vavr.control.Either;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.interfaces.oneTo.OneToEitherAsync;
+import org.articioc.interfaces.oneTo.OneToManyAsync;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.metrics.InMemoryPipelineMetrics;
+import org.articioc.metrics.PipelineMetrics.Event;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocSingleFlightTest {
+
+  private static StepOptions<TestLeaf, TestStep> singleFlight() {
+    return new StepOptions<TestLeaf, TestStep>()
+        .setSingleFlight(new StepOptions.SingleFlightOptions<>(TestLeaf::getStep0, TestLeaf::copy));
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> records(int size, int keys) {
+    return CompletableFuture.completedFuture(Stream.range(0, size)
+        .map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i % keys))));
+  }
+
+  /* Calls stay pending until released, so every record of the batch reaches the step first. */
+  static class RemoteService {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<Void> release = new CompletableFuture<>();
+
+    CompletableFuture<TestLeaf> fetch(TestLeaf input) {
+      calls.incrementAndGet();
+      return release.thenApply(ignore -> input.copy().setStep1("fetched-" + input.getStep0()));
+    }
+  }
+
+  @Test
+  void concurrentRecordsWithTheSameKeyShareOneCall() {
+    var metrics = new InMemoryPipelineMetrics();
+    var remote = new RemoteService();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .metrics(metrics)
+        .addStep((OneToOneAsync<TestLeaf>) remote::fetch, singleFlight())
+        .end();
+
+    var result = articioc.pipeline().apply(records(100, 4));
+    remote.release.complete(null);
+
+    var records = result.join();
+    Assertions.assertEquals(100, records.size());
+    Assertions.assertEquals(4, remote.calls.get());
+    Assertions.assertTrue(records.forAll(e -> e.getStep1().equals("fetched-" + e.getStep0())));
+    Assertions.assertEquals(100, records.map(System::identityHashCode).distinct().size());
+    Assertions.assertEquals(
+        96, metrics.snapshot().get(TestStep._0.getName()).events().get(Event.COALESCED));
+  }
+
+  @Test
+  void oneToManyAndEitherStepsShareCallsAsWell() {
+    var first = new RemoteService();
+    var second = new RemoteService();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(
+            (OneToManyAsync<TestLeaf>) input ->
+                first.fetch(input).thenApply(e -> Stream.of(e, e.copy())),
+            singleFlight())
+        .addStep(
+            (OneToEitherAsync<Exception, TestLeaf>) input ->
+                second.fetch(input).thenApply(Either::right),
+            singleFlight())
+        .end();
+
+    var result = articioc.pipeline().apply(records(10, 1));
+    first.release.complete(null);
+    second.release.complete(null);
+
+    Assertions.assertEquals(20, result.join().size());
+    Assertions.assertEquals(1, first.calls.get());
+    Assertions.assertEquals(1, second.calls.get());
+  }
+}
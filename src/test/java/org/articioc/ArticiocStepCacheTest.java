@@ -0,0 +1,69 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.base.utils.StepCache;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocStepCacheTest {
+
+  private static CompletableFuture<Stream<TestLeaf>> records(int size, int keys) {
+    return CompletableFuture.completedFuture(Stream.range(0, size)
+        .map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i % keys))));
+  }
+
+  @Test
+  void recordsWithTheSameKeyCallTheStepOnce() {
+    var calls = new AtomicInteger();
+    var cache = new StepCache<String, TestLeaf>(100, Duration.ofMinutes(1));
+
+    OneToOneAsync<TestLeaf> fetch = input -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(input.setStep1("fetched-" + input.getStep0()));
+    };
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(
+            fetch,
+            new StepOptions<TestLeaf, TestStep>()
+                .setCache(new StepOptions.CacheOptions<>(cache, TestLeaf::getStep0, TestLeaf::copy)))
+        .end();
+
+    var result = articioc.pipeline().apply(records(100, 5)).join();
+
+    Assertions.assertEquals(100, result.size());
+    Assertions.assertTrue(result.forAll(e -> e.getStep1().equals("fetched-" + e.getStep0())));
+    Assertions.assertEquals(100, result.map(System::identityHashCode).distinct().size());
+    Assertions.assertEquals(5, calls.get());
+
+    var stats = cache.stats();
+    Assertions.assertEquals(95, stats.hits());
+    Assertions.assertEquals(5, stats.misses());
+    Assertions.assertEquals(5, stats.size());
+  }
+
+  @Test
+  void cachedResultsAreNotChangedByTheNextSteps() {
+    var cache = new StepCache<String, TestLeaf>(10, null);
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(
+            (OneToOneAsync<TestLeaf>) CompletableFuture::completedFuture,
+            new StepOptions<TestLeaf, TestStep>()
+                .setCache(new StepOptions.CacheOptions<>(cache, TestLeaf::getStep0, TestLeaf::copy)))
+        .addStep((OneToOne<TestLeaf>) input -> input.setStep4("changed"))
+        .end();
+
+    articioc.pipeline().apply(records(2, 1)).join();
+
+    Assertions.assertNull(cache.get("0").orElseThrow().getStep4());
+  }
+}
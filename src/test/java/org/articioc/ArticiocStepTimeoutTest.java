@@ -0,0 +1,142 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.articioc.base.Step;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.exceptions.StepTimeoutException;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.interfaces.oneTo.OneToStreamCompletableFuture;
+import org.articioc.metrics.InMemoryPipelineMetrics;
+import org.articioc.metrics.PipelineMetrics.Event;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocStepTimeoutTest {
+
+  private static StepOptions<TestLeaf, TestStep> timeout(Duration timeout, Duration hedgeAfter) {
+    return new StepOptions<TestLeaf, TestStep>()
+        .setTimeout(new StepOptions.TimeoutOptions<>(timeout, hedgeAfter, null, null));
+  }
+
+  private static CompletableFuture<Stream<TestLeaf>> records(int size) {
+    return CompletableFuture.completedFuture(
+        Stream.range(0, size).map(i -> new TestLeaf(TestStep._0)));
+  }
+
+  @Test
+  void timedOutRecordsGoThroughTheErrorHandlers() {
+    var metrics = new InMemoryPipelineMetrics();
+    var handled = new AtomicReference<Exception>();
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .metrics(metrics)
+        .addStep(
+            (OneToOneAsync<TestLeaf>) input -> new CompletableFuture<>(),
+            timeout(Duration.ofMillis(50), null))
+        .onError(
+            (ex, records) -> {
+              handled.set(ex);
+              return CompletableFuture.completedFuture(records);
+            },
+            TestStep._1)
+        .checkpoint(TestStep._1)
+        .end();
+
+    var result = articioc.pipeline().apply(records(1)).join();
+
+    Assertions.assertEquals(1, result.size());
+    Assertions.assertEquals(Step.FINAL, result.head().getStep());
+    Assertions.assertInstanceOf(StepTimeoutException.class, handled.get());
+
+    var events = metrics.snapshot().get(TestStep._0.getName()).events();
+    Assertions.assertEquals(1, events.get(Event.TIMED_OUT));
+    Assertions.assertEquals(0, events.get(Event.HEDGED));
+  }
+
+  @Test
+  void hedgeCompletesTheRecordsWhoseFirstAttemptIsStuck() {
+    var metrics = new InMemoryPipelineMetrics();
+    var attempts = new AtomicInteger();
+
+    /* Every first attempt hangs, every second one completes right away. */
+    OneToOneAsync<TestLeaf> flaky = input -> attempts.incrementAndGet() % 2 == 1
+        ? new CompletableFuture<>()
+        : CompletableFuture.completedFuture(input.setStep1("hedged"));
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .metrics(metrics)
+        .maxInFlight(1)
+        .addStep(flaky, timeout(Duration.ofSeconds(5), Duration.ofMillis(10)))
+        .end();
+
+    var result = articioc.pipeline().apply(records(3)).join();
+
+    Assertions.assertEquals(3, result.size());
+    Assertions.assertTrue(result.forAll(e -> "hedged".equals(e.getStep1())));
+
+    var events = metrics.snapshot().get(TestStep._0.getName()).events();
+    Assertions.assertEquals(3, events.get(Event.HEDGED));
+    Assertions.assertEquals(0, events.get(Event.TIMED_OUT));
+  }
+
+  @Test
+  void eachAttemptRunsOnItsOwnCopy() {
+    var original = new TestLeaf(TestStep._0);
+    var loser = new AtomicReference<TestLeaf>();
+
+    /* The first attempt hangs and keeps its record, as if it was still running. */
+    OneToOneAsync<TestLeaf> step = input -> {
+      if (loser.compareAndSet(null, input)) return new CompletableFuture<>();
+      return CompletableFuture.completedFuture(input.setStep1("hedged"));
+    };
+
+    var options = new StepOptions<TestLeaf, TestStep>()
+        .setTimeout(new StepOptions.TimeoutOptions<>(
+            Duration.ofSeconds(5), Duration.ofMillis(10), null, null, TestLeaf::copy));
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(step, options)
+        .end();
+
+    var result = articioc
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(original)))
+        .join();
+
+    loser.get().setStep1("late");
+
+    Assertions.assertEquals("hedged", result.head().getStep1());
+    Assertions.assertNotSame(original, loser.get());
+    Assertions.assertNotSame(result.head(), loser.get());
+    Assertions.assertNull(original.getStep1());
+  }
+
+  @Test
+  void fastStepsAreNeitherHedgedNorTimedOut() {
+    var metrics = new InMemoryPipelineMetrics();
+    var attempts = new AtomicInteger();
+
+    OneToStreamCompletableFuture<TestLeaf> fast = input -> {
+      attempts.incrementAndGet();
+      return Stream.of(CompletableFuture.completedFuture(input));
+    };
+
+    var articioc = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .metrics(metrics)
+        .addStep(fast, timeout(Duration.ofMillis(50), Duration.ofMillis(1)))
+        .end();
+
+    Assertions.assertEquals(10, articioc.pipeline().apply(records(10)).join().size());
+    Assertions.assertEquals(10, attempts.get());
+
+    var events = metrics.snapshot().get(TestStep._0.getName()).events();
+    Assertions.assertEquals(0, events.get(Event.HEDGED));
+    Assertions.assertEquals(0, events.get(Event.TIMED_OUT));
+  }
+}
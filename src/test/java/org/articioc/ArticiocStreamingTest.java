@@ -0,0 +1,142 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.execution.ExecutionContext;
+import org.articioc.base.providers.EmptyProvider;
+import org.articioc.interfaces.manyTo.ManyToMany;
+import org.articioc.interfaces.oneTo.OneToMany;
+import org.articioc.interfaces.oneTo.OneToOne;
+import org.articioc.interfaces.oneTo.OneToOneAsync;
+import org.articioc.tests.models.TestLeaf;
+import org.articioc.tests.models.TestStep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArticiocStreamingTest {
+
+  private static CompletableFuture<Stream<TestLeaf>> single() {
+    return CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0)));
+  }
+
+  @Test
+  void explodedRecordsFlowDownstreamWithinTheBuffer() {
+    var produced = new AtomicInteger();
+    var consumed = new AtomicInteger();
+    var maxWaiting = new AtomicInteger();
+
+    OneToMany<TestLeaf> explode = input -> Stream.range(0, 100_000).map(i -> {
+      produced.incrementAndGet();
+      return new TestLeaf(TestStep._0).setStep0(String.valueOf(i));
+    });
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .streaming(16)
+        .addStep(explode)
+        .addStep((OneToOne<TestLeaf>) input -> {
+          maxWaiting.accumulateAndGet(produced.get() - consumed.incrementAndGet(), Math::max);
+          return input.setStep1("consumed");
+        })
+        .addStep((OneToOneAsync<TestLeaf>)
+            input -> CompletableFuture.completedFuture(input.setStep2("async")))
+        .end();
+
+    var result = articioc.pipeline().apply(single()).join();
+
+    Assertions.assertEquals(100_000, result.size());
+    Assertions.assertEquals(
+        Stream.range(0, 100_000).map(String::valueOf).toJavaList(),
+        result.map(TestLeaf::getStep0).toJavaList());
+    Assertions.assertTrue(result.forAll(e -> "async".equals(e.getStep2())));
+    Assertions.assertTrue(maxWaiting.get() <= 64, "Waiting records: " + maxWaiting.get());
+  }
+
+  @Test
+  void asyncStepsRunOnUpToConcurrencyRecordsAndKeepTheirOrder() {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    OneToOneAsync<TestLeaf> slow = input -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+      /* Earlier records take longer, so they complete out of order. */
+      var delay = 50 - Integer.parseInt(input.getStep0()) * 5L;
+      return CompletableFuture.supplyAsync(
+          () -> {
+            running.decrementAndGet();
+            return input.setStep1("slow");
+          },
+          CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    };
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .streaming(16, 4, true, ExecutionContext.virtualThreads())
+        .addStep((OneToMany<TestLeaf>) input -> Stream.range(0, 8)
+            .map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i))))
+        .addStep(slow)
+        .end();
+
+    var result = articioc.pipeline().apply(single()).join();
+
+    Assertions.assertEquals(
+        Stream.range(0, 8).map(String::valueOf).toJavaList(),
+        result.map(TestLeaf::getStep0).toJavaList());
+    Assertions.assertTrue(result.forAll(e -> "slow".equals(e.getStep1())));
+    Assertions.assertEquals(4, maxRunning.get());
+  }
+
+  @Test
+  void withoutOrderRecordsAreHandedOverAsTheyComplete() {
+    OneToOneAsync<TestLeaf> slow = input -> CompletableFuture.supplyAsync(
+        () -> input,
+        CompletableFuture.delayedExecutor(
+            Integer.parseInt(input.getStep0()) == 0 ? 200 : 0, TimeUnit.MILLISECONDS));
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .streaming(16, 4, false, ExecutionContext.virtualThreads())
+        .addStep((OneToMany<TestLeaf>) input -> Stream.range(0, 4)
+            .map(i -> new TestLeaf(TestStep._0).setStep0(String.valueOf(i))))
+        .addStep(slow)
+        .end();
+
+    var result = articioc.pipeline().apply(single()).join().map(TestLeaf::getStep0);
+
+    Assertions.assertEquals(4, result.size());
+    Assertions.assertEquals("0", result.last());
+  }
+
+  @Test
+  void manyToManyStepsReceiveEveryStreamedRecord() {
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .streaming(4)
+        .addStep((OneToMany<TestLeaf>) input -> Stream.range(0, 10).map(i -> input.copy()))
+        .addStep((ManyToMany<TestLeaf>) records -> Stream.of(records.head().setStep0(
+            String.valueOf(records.size()))))
+        .addStep((OneToOne<TestLeaf>) input -> input.setStep1("after"))
+        .end();
+
+    var result = articioc.pipeline().apply(single()).join().single();
+
+    Assertions.assertEquals("10", result.getStep0());
+    Assertions.assertEquals("after", result.getStep1());
+  }
+
+  @Test
+  void failuresOfAStreamingStepReachTheErrorHandlers() {
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), TestStep._0)
+        .streaming(4)
+        .addStep((OneToMany<TestLeaf>) input -> Stream.range(0, 100).map(i -> input.copy()))
+        .addStep((OneToOne<TestLeaf>) input -> {
+          throw new IllegalStateException("Boom");
+        })
+        .onError((ex, records) -> CompletableFuture.completedFuture(
+            records.map(e -> e.setStep0(ex.getMessage()))))
+        .end();
+
+    var result = articioc.pipeline().apply(single()).join().single();
+
+    Assertions.assertEquals("Boom", result.getStep0());
+  }
+}
@@ -5,7 +5,12 @@ import static org.awaitility.Awaitility.await;
 import io.vavr.collection.Stream;
 import io.vavr.control.Either;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.articioc.base.Step;
 import org.articioc.base.providers.EmptyProvider;
+import org.articioc.base.providers.InMemoryProvider;
+import org.articioc.interfaces.oneTo.OneToStreamCompletableFuture;
 import org.articioc.tests.models.TestLeaf;
 import org.articioc.tests.models.TestStep;
 import org.junit.jupiter.api.Assertions;
@@ -13,6 +18,87 @@ import org.junit.jupiter.api.Test;
 
 class ArticiocTest {
 
+  @Test
+  void readonlyCheckpointIsKeptPerPipeline() {
+    var readonlyProvider = new InMemoryProvider<TestLeaf>();
+    var writingProvider = new InMemoryProvider<TestLeaf>();
+
+    var readonly = new Articioc.Builder<>(readonlyProvider, TestStep._0)
+        .checkpoint(
+            TestStep._1,
+            new StepOptions<TestLeaf, TestStep>()
+                .setCheckpoint(new StepOptions.CheckpointOptions<>(true)))
+        .end();
+
+    /* Declares the same step after the readonly pipeline, without the option. */
+    var writing = new Articioc.Builder<>(writingProvider, TestStep._0)
+        .checkpoint(TestStep._1)
+        .end();
+
+    readonly.pipeline(readonlyProvider)
+        .apply(CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0))))
+        .join();
+    writing.pipeline(writingProvider)
+        .apply(CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0))))
+        .join();
+
+    Assertions.assertEquals(0, readonlyProvider.getQueue().length());
+    Assertions.assertEquals(1, writingProvider.getQueue().length());
+  }
+
+  @Test
+  void onlyEmptyProviderItselfSkipsTheWrites() {
+    var writes = new AtomicInteger();
+    var persisting = new EmptyProvider<TestLeaf>() {
+      @Override
+      public TestLeaf writeSync(TestLeaf leaf) {
+        writes.incrementAndGet();
+        return leaf;
+      }
+
+      @Override
+      public Stream<TestLeaf> writeSync(Stream<TestLeaf> leaves) {
+        return leaves.map(this::writeSync).toList().toStream();
+      }
+    };
+
+    var articioc = new Articioc.Builder<>(persisting, TestStep._0)
+        .addStep(this::oneToOne)
+        .checkpoint(TestStep._1)
+        .addStep(this::oneToOneOnStep1)
+        .checkpoint(TestStep._2)
+        .end();
+
+    Supplier<CompletableFuture<Stream<TestLeaf>>> input =
+        () -> CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0)));
+
+    var withoutProvider = articioc.pipeline().apply(input.get()).join().toList();
+    Assertions.assertEquals(0, writes.get());
+    Assertions.assertEquals(1, withoutProvider.size());
+    Assertions.assertTrue(withoutProvider.head().getStep().isFinal());
+
+    var withSubclass = articioc.pipeline(persisting).apply(input.get()).join().toList();
+    Assertions.assertEquals(2, writes.get());
+    Assertions.assertEquals(withoutProvider, withSubclass);
+  }
+
+  @Test
+  void recordsReadBeforeTheirStepWasDeclaredAreRouted() {
+    var readEarly = (TestLeaf) new TestLeaf().setStep(Step.lookup("declared-late"));
+
+    var articioc = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), new Step("declared-late"))
+        .addStep(this::oneToOne)
+        .end();
+
+    var result = articioc.pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(readEarly)))
+        .join()
+        .single();
+
+    Assertions.assertTrue(result.getStep().isFinal());
+    Assertions.assertEquals("OneToOne step", result.getStep0());
+  }
+
   @Test
   void BasicScenario() {
     var record = new TestLeaf(TestStep._0);
@@ -58,6 +144,53 @@ class ArticiocTest {
     Assertions.assertEquals("OneToOne step, enriched!", second.getStep1());
   }
 
+  @Test
+  void ManyCheckpointsDoNotGrowTheStack() {
+    var checkpoints = 5_000;
+
+    var builder = new Articioc.Builder<>(new EmptyProvider<TestLeaf>(), new Step("step-0"));
+    for (int i = 1; i <= checkpoints; i++) {
+      builder = builder.addStep(this::countLap).checkpoint(new Step("step-" + i));
+    }
+
+    var result = builder
+        .addStep(this::countLap)
+        .end()
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(
+            Stream.of((TestLeaf) new TestLeaf().setStep(new Step("step-0")))))
+        .join()
+        .toList();
+
+    Assertions.assertEquals(1, result.size());
+    Assertions.assertEquals(String.valueOf(checkpoints + 1), result.get(0).getStep0());
+  }
+
+  @Test
+  void failedFutureOfAStreamStepDoesNotCancelTheOthers() {
+    var sibling = new CompletableFuture<TestLeaf>();
+    OneToStreamCompletableFuture<TestLeaf> step = input -> Stream.of(
+        CompletableFuture.failedFuture(new IllegalStateException("Boom")), sibling);
+
+    var future = new Articioc.Builder<>(new InMemoryProvider<TestLeaf>(), TestStep._0)
+        .addStep(step)
+        .end()
+        .pipeline()
+        .apply(CompletableFuture.completedFuture(Stream.of(new TestLeaf(TestStep._0))));
+
+    Assertions.assertFalse(sibling.isCancelled());
+    Assertions.assertFalse(future.isDone());
+
+    sibling.complete(new TestLeaf(TestStep._0));
+    await().until(future::isDone);
+    Assertions.assertFalse(sibling.isCancelled());
+  }
+
+  TestLeaf countLap(TestLeaf input) {
+    var laps = input.getStep0() == null ? 0 : Integer.parseInt(input.getStep0());
+    return input.setStep0(String.valueOf(laps + 1));
+  }
+
   TestLeaf oneToOne(TestLeaf input) {
     return input.setStep0("OneToOne step");
   }
@@ -0,0 +1,38 @@
+package org.articioc;
+
+import io.vavr.collection.Stream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LeafBatchTest {
+
+  @Test
+  void partitionAndGroupKeepTheOrderOfTheRecords() {
+    var batch = LeafBatch.ofAll(Stream.range(0, 10));
+
+    var partition = batch.partition(i -> i % 3 == 0);
+    Assertions.assertEquals(List.of(0, 3, 6, 9), partition.matching().toStream().toJavaList());
+    Assertions.assertEquals(List.of(1, 2, 4, 5, 7, 8), partition.rest().toStream().toJavaList());
+
+    var groups = batch.groupBy(i -> i % 2 == 0 ? "even" : "odd");
+    Assertions.assertEquals(List.of("even", "odd"), List.copyOf(groups.keySet()));
+    Assertions.assertEquals(List.of(1, 3, 5, 7, 9), groups.get("odd").toStream().toJavaList());
+  }
+
+  @Test
+  void whenAllConcatenatesInOrderOfTheFutures() {
+    var late = new CompletableFuture<LeafBatch<Integer>>();
+    var futures = LeafBatch.ofAll(List.of(
+        late,
+        CompletableFuture.completedFuture(LeafBatch.<Integer>empty()),
+        CompletableFuture.completedFuture(LeafBatch.concat(LeafBatch.of(3), LeafBatch.of(4)))));
+
+    var all = LeafBatch.whenAll(futures);
+    Assertions.assertFalse(all.isDone());
+
+    late.complete(LeafBatch.ofAll(List.of(1, 2)));
+    Assertions.assertEquals(List.of(1, 2, 3, 4), all.join().toStream().toJavaList());
+  }
+}
@@ -0,0 +1,88 @@
+package org.articioc;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.articioc.base.Step;
+import org.articioc.interfaces.CheckpointPipeline;
+import org.articioc.interfaces.ErrorPipeline;
+import org.articioc.interfaces.Outcome;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PipelineStepTest {
+
+  private static PipelineStep<Integer, Step> compile(List<CheckpointPipeline<Integer>> steps) {
+    return new PipelineStep<>(
+        Step.of("plan-from"), Step.of("plan-to"), steps, ErrorPipeline.identity(), null);
+  }
+
+  private static CheckpointPipeline<Integer> counting(AtomicInteger counter) {
+    return records -> {
+      counter.incrementAndGet();
+      return CompletableFuture.completedFuture(Outcome.next(records));
+    };
+  }
+
+  @Test
+  void synchronousStepsRunWithoutGrowingTheStack() {
+    var counter = new AtomicInteger();
+    var plan = compile(List.fill(100_000, () -> counting(counter)));
+
+    var outcome = plan.run(Stream.of(1)).join();
+
+    Assertions.assertEquals(100_000, counter.get());
+    Assertions.assertEquals(Outcome.next(Stream.of(1)), outcome);
+  }
+
+  @Test
+  void pendingStepResumesTheRemainingOnes() {
+    var counter = new AtomicInteger();
+    var gate = new CompletableFuture<Outcome<Integer>>();
+
+    var plan = compile(List.of(counting(counter), records -> gate, counting(counter)));
+    var executed = plan.run(Stream.of(1));
+
+    Assertions.assertFalse(executed.isDone());
+    Assertions.assertEquals(1, counter.get());
+
+    gate.complete(Outcome.next(Stream.of(2)));
+    Assertions.assertEquals(Outcome.next(Stream.of(2)), executed.join());
+    Assertions.assertEquals(2, counter.get());
+  }
+
+  @Test
+  void skipAndFailureStopTheRemainingSteps() {
+    var counter = new AtomicInteger();
+
+    var skipped = compile(List.of(
+            records -> CompletableFuture.completedFuture(Outcome.skip(records)),
+            counting(counter)))
+        .run(Stream.of(1));
+
+    Assertions.assertEquals(Outcome.skip(Stream.of(1)), skipped.join());
+
+    var failed = compile(List.of(
+            records -> {
+              throw new IllegalStateException("Boom");
+            },
+            counting(counter)))
+        .run(Stream.of(1));
+
+    Assertions.assertTrue(failed.isCompletedExceptionally());
+    Assertions.assertEquals(0, counter.get());
+  }
+
+  @Test
+  void andThenCompilesACopy() {
+    var counter = new AtomicInteger();
+    var plan = compile(List.of(counting(counter)));
+
+    plan.andThen(counting(counter)).run(Stream.of(1)).join();
+    Assertions.assertEquals(2, counter.get());
+
+    plan.run(Stream.of(1)).join();
+    Assertions.assertEquals(3, counter.get());
+  }
+}
@@ -0,0 +1,37 @@
+package org.articioc.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void percentilesAreWithinTheHistogramPrecision() {
+    var histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1_000; i++) {
+      histogram.record(i * 1_000);
+    }
+
+    var snapshot = histogram.snapshot();
+
+    assertWithin(500_000, LatencyHistogram.percentile(snapshot, 0.5));
+    assertWithin(990_000, LatencyHistogram.percentile(snapshot, 0.99));
+    assertWithin(1_000_000, LatencyHistogram.percentile(snapshot, 1));
+    Assertions.assertEquals(0, LatencyHistogram.percentile(new LatencyHistogram().snapshot(), 0.5));
+  }
+
+  @Test
+  void everyValueFallsInABucketThatContainsIt() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 1_023, 1_024, 123_456_789, Long.MAX_VALUE}) {
+      var index = LatencyHistogram.indexOf(value);
+
+      Assertions.assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+      if (index > 0) Assertions.assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value);
+    }
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    Assertions.assertTrue(
+        actual >= expected && actual <= expected * 1.125, "Expected ~" + expected + ", was " + actual);
+  }
+}